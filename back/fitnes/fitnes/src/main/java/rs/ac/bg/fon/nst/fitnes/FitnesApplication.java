@@ -2,8 +2,10 @@ package rs.ac.bg.fon.nst.fitnes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FitnesApplication {
 
 	public static void main(String[] args) {
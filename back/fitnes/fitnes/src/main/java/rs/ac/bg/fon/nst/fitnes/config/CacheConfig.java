@@ -0,0 +1,40 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Kes pojedinacnih vezbi. Katalog se menja samo kroz servise, koji brisu tacno one unose na
+ * koje izmena utice. Liste kategorija i grupa misica ne idu kroz kes, vec kroz KatalogSnapshot.
+ */
+@Configuration
+// Kes savet je spolja u odnosu na transakciju: pogodak ne otvara transakciju, a brisanje ide posle commit-a
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String VEZBE = "vezbe";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.catalog.max-weight:20000}") long maxVezbi,
+                                     @Value("${cache.catalog.ttl-seconds:600}") long ttlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(VEZBE, Caffeine.newBuilder()
+                .maximumSize(maxVezbi)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
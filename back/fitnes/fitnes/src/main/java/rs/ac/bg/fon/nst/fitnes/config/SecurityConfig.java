@@ -2,6 +2,10 @@ package rs.ac.bg.fon.nst.fitnes.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -9,7 +13,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -17,6 +20,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
+import rs.ac.bg.fon.nst.fitnes.security.AdaptiveBCryptPasswordEncoder;
+import rs.ac.bg.fon.nst.fitnes.security.BoundedPasswordEncoder;
 import rs.ac.bg.fon.nst.fitnes.security.JwtAuthEntryPoint;
 import rs.ac.bg.fon.nst.fitnes.security.JwtAuthenticationFilter;
 
@@ -36,9 +41,24 @@ public class SecurityConfig {
     }
 
   
-    @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt radi na posebnom ogranicenom pool-u, pa nalet prijava ne zauzima niti za ostale zahteve.
+    // Cena se meri pri pokretanju (target-ms), osim ako je strength eksplicitno zadat.
+    @Bean(destroyMethod = "shutdown")
+    public static PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.strength:0}") int strength,
+            @Value("${security.password-hashing.target-ms:250}") long targetMillis,
+            @Value("${security.password-hashing.min-strength:10}") int minStrength,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AdaptiveBCryptPasswordEncoder bcrypt = strength > 0
+                ? new AdaptiveBCryptPasswordEncoder(strength)
+                : AdaptiveBCryptPasswordEncoder.calibrated(targetMillis, minStrength, AdaptiveBCryptPasswordEncoder.MAX_STRENGTH);
+        Gauge.builder("auth.password.hash.strength", bcrypt, AdaptiveBCryptPasswordEncoder::getStrength)
+                .register(meterRegistry);
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
     }
 
    
@@ -74,9 +94,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> {
                    
                     authorize.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+                    // Async dispatch (SSE napredak generisanja) nastavlja vec autorizovan zahtev; JWT se tada ne cita ponovo
+                    authorize.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll();
 
                   
                     authorize.requestMatchers("/api/auth/**").permitAll();
+                    authorize.requestMatchers(HttpMethod.GET, "/api/vezbe/search", "/api/vezbe/suggest", "/api/vezbe/facets").permitAll();
                     authorize.requestMatchers(HttpMethod.GET, "/api/vezbe/{id}").permitAll();
                     authorize.requestMatchers(HttpMethod.GET, "/api/vezbe/video/{id}").permitAll();
                     authorize.requestMatchers(HttpMethod.GET, "/api/grupe-misica").permitAll();
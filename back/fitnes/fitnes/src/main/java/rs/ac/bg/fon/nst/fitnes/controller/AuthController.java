@@ -5,14 +5,17 @@
 package rs.ac.bg.fon.nst.fitnes.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import rs.ac.bg.fon.nst.fitnes.dto.AuthResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.LoginRequest;
+import rs.ac.bg.fon.nst.fitnes.dto.RefreshTokenRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.RegisterRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.UserResponse;
+import rs.ac.bg.fon.nst.fitnes.security.LoginRateLimiter;
 import rs.ac.bg.fon.nst.fitnes.service.auth.AuthService;
 
 
@@ -21,14 +24,18 @@ import rs.ac.bg.fon.nst.fitnes.service.auth.AuthService;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
    
     @PostMapping("/register")
-    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
+        loginRateLimiter.checkRegister(httpRequest.getRemoteAddr());
         UserResponse userResponse = authService.registerUser(request);
         return new ResponseEntity<>(userResponse, HttpStatus.CREATED);
         
@@ -36,26 +43,24 @@ public class AuthController {
 
    
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        String token = authService.loginUser(request);
-        
-        UserResponse userResponse = authService.getUserByEmail(request.getEmail()); 
-
-        AuthResponse authResponse = new AuthResponse(
-                "Uspešna prijava!",
-                true,
-                userResponse,
-                token,
-                "Bearer",
-                userResponse.getRole().getRole()
-        );
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        // Pre BCrypt provere, da nalet pokusaja ne trosi CPU
+        loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
+        AuthResponse authResponse = authService.loginUser(request);
         return new ResponseEntity<>(authResponse, HttpStatus.OK);
     }
 
     
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refreshTokens(request.getRefreshToken()));
+    }
+
+    
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
-        authService.logoutUser();
+    public ResponseEntity<String> logout(@RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logoutUser(request != null ? request.getRefreshToken() : null);
         return ResponseEntity.ok("Uspešno ste se odjavili!");
     }
 }
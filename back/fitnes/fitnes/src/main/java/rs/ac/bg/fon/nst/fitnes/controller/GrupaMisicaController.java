@@ -11,14 +11,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 
-import java.util.List;
 import java.util.Optional;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
 import rs.ac.bg.fon.nst.fitnes.service.GrupaMisicaService;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSnapshot;
 
 
 @RestController
@@ -26,9 +27,11 @@ import rs.ac.bg.fon.nst.fitnes.service.GrupaMisicaService;
 public class GrupaMisicaController {
 
     private final GrupaMisicaService grupaMisicaService;
+    private final KatalogSnapshot katalogSnapshot;
 
-    public GrupaMisicaController(GrupaMisicaService grupaMisicaService) {
+    public GrupaMisicaController(GrupaMisicaService grupaMisicaService, KatalogSnapshot katalogSnapshot) {
         this.grupaMisicaService = grupaMisicaService;
+        this.katalogSnapshot = katalogSnapshot;
     }
 
     
@@ -42,9 +45,8 @@ public class GrupaMisicaController {
 
     
     @GetMapping
-    public ResponseEntity<List<GrupaMisicaResponse>> getAllGrupeMisica() {
-        List<GrupaMisicaResponse> grupeMisica = grupaMisicaService.getAllGrupeMisica();
-        return ResponseEntity.ok(grupeMisica);
+    public ResponseEntity<byte[]> getAllGrupeMisica(WebRequest request) {
+        return KatalogSnapshotResponses.of(katalogSnapshot.grupe(), request);
     }
 
     
@@ -0,0 +1,42 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSnapshot.Snimak;
+
+/**
+ * Odgovor iz snimka kataloga: gotovi bajtovi, jak ETag i 304 za If-None-Match.
+ */
+final class KatalogSnapshotResponses {
+
+    static final String VERZIJA_HEADER = "X-Catalog-Version";
+
+    private KatalogSnapshotResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(Snimak snimak, WebRequest request) {
+        String encoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = encoding != null && encoding.contains("gzip");
+        String etag = gzip ? snimak.gzipEtag() : snimak.etag();
+
+        // checkNotModified postavlja ETag i status 304 kada klijent vec ima ovaj sadrzaj
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder odgovor = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(VERZIJA_HEADER, Long.toString(snimak.verzija()));
+        if (gzip) {
+            return odgovor.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snimak.gzip());
+        }
+        return odgovor.body(snimak.json());
+    }
+}
@@ -12,26 +12,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 
-import java.util.List;
-import rs.ac.bg.fon.nst.fitnes.dto.KategorijaVezbeResponse;
-import rs.ac.bg.fon.nst.fitnes.service.KategorijaVezbeService;
+import org.springframework.web.context.request.WebRequest;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSnapshot;
 
 
 @RestController
 @RequestMapping("/api/kategorije-vezbe")
 public class KategorijaVezbeController {
 
-    private final KategorijaVezbeService kategorijaVezbeService;
+    private final KatalogSnapshot katalogSnapshot;
 
-    public KategorijaVezbeController(KategorijaVezbeService kategorijaVezbeService) {
-        this.kategorijaVezbeService = kategorijaVezbeService;
+    public KategorijaVezbeController(KatalogSnapshot katalogSnapshot) {
+        this.katalogSnapshot = katalogSnapshot;
     }
 
    
     @GetMapping
-    public ResponseEntity<List<KategorijaVezbeResponse>> getAllKategorijeVezbe() {
-        List<KategorijaVezbeResponse> kategorije = kategorijaVezbeService.getAllKategorijeVezbe();
-        return ResponseEntity.ok(kategorije);
+    public ResponseEntity<byte[]> getAllKategorijeVezbe(WebRequest request) {
+        return KatalogSnapshotResponses.of(katalogSnapshot.kategorije(), request);
     }
 }
 
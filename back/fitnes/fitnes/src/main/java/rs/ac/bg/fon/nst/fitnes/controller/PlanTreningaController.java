@@ -7,14 +7,20 @@ package rs.ac.bg.fon.nst.fitnes.controller;
 
 
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisaniPlanResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisanjeStatusResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaGenerationRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaResponse;
+import rs.ac.bg.fon.nst.fitnes.service.GenerisanjePlanaService;
 import rs.ac.bg.fon.nst.fitnes.service.PlanTreningaService;
 
 
@@ -24,9 +30,12 @@ import rs.ac.bg.fon.nst.fitnes.service.PlanTreningaService;
 public class PlanTreningaController {
 
     private final PlanTreningaService planTreningaService;
+    private final GenerisanjePlanaService generisanjePlanaService;
 
-    public PlanTreningaController(PlanTreningaService planTreningaService) {
+    public PlanTreningaController(PlanTreningaService planTreningaService,
+                                  GenerisanjePlanaService generisanjePlanaService) {
         this.planTreningaService = planTreningaService;
+        this.generisanjePlanaService = generisanjePlanaService;
     }
 
     
@@ -54,9 +63,28 @@ public class PlanTreningaController {
     
     
        @PostMapping("/generatedPlan")
-    public ResponseEntity<List<PlanTreningaResponse>> generatePlanTreninga(@RequestBody PlanTreningaGenerationRequest request){
+    public ResponseEntity<GenerisaniPlanResponse> generatePlanTreninga(@RequestBody PlanTreningaGenerationRequest request){
         return new ResponseEntity<>(planTreningaService.generatePersonalizedPlan(request),HttpStatus.OK);
     }
+
+    // Dugi planovi: posao se prihvata odmah, a napredak se prati preko statusa ili SSE toka
+    @PostMapping("/generatedPlan/jobs")
+    public ResponseEntity<GenerisanjeStatusResponse> startGenerisanje(@RequestBody PlanTreningaGenerationRequest request) {
+        GenerisanjeStatusResponse status = generisanjePlanaService.pokreni(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/plan-treninga/generatedPlan/jobs/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping("/generatedPlan/jobs/{jobId}")
+    public ResponseEntity<GenerisanjeStatusResponse> getGenerisanjeStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(generisanjePlanaService.getStatus(jobId));
+    }
+
+    @GetMapping(value = "/generatedPlan/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter pratiGenerisanje(@PathVariable String jobId) {
+        return generisanjePlanaService.pratiNapredak(jobId);
+    }
    
 }
 
@@ -6,6 +6,7 @@ package rs.ac.bg.fon.nst.fitnes.controller;
 
 
 import jakarta.validation.Valid;
+import java.util.List;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -13,9 +14,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.util.List;
+import rs.ac.bg.fon.nst.fitnes.dto.FaseteResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.PredlogResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaPageResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
 import rs.ac.bg.fon.nst.fitnes.service.VezbaService;
 import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
 
@@ -47,9 +51,34 @@ public class VezbaController {
 
 
     @GetMapping
-    public ResponseEntity<List<VezbaResponse>> getAllVezbe() {
-        List<VezbaResponse> vezbe = vezbaService.getAllVezbe();
-        return ResponseEntity.ok(vezbe);
+    public ResponseEntity<VezbaPageResponse> getVezbe(
+            @RequestParam(required = false) Long grupaMisicaId,
+            @RequestParam(required = false) Long kategorijaId,
+            @RequestParam(required = false) Integer trenerId,
+            @RequestParam(required = false) String naziv,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(vezbaService.getVezbe(grupaMisicaId, kategorijaId, trenerId, naziv, cursor, size));
+    }
+
+
+    @GetMapping("/search")
+    public ResponseEntity<List<VezbaSummary>> searchVezbe(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(vezbaService.searchVezbe(q, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PredlogResponse>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(vezbaService.suggest(q, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FaseteResponse> getFasete(@RequestParam(required = false) Integer trenerId) {
+        return ResponseEntity.ok(vezbaService.getFasete(trenerId));
     }
 
    
@@ -9,11 +9,13 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "grupe_misica")
+@Table(name = "grupe_misica", uniqueConstraints = @UniqueConstraint(name = "uk_grupe_misica_normalizovan_naziv", columnNames = "normalizovan_naziv"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +28,11 @@ public class GrupaMisica {
     @Column(unique = true)
     private String naziv;
 
+    // Izvodi se iz naziva (setNaziv i pre upisa); stari redovi se popunjavaju u NormalizovanNazivBackfill
+    @Column(name = "normalizovan_naziv")
+    @Setter(AccessLevel.NONE)
+    private String normalizovanNaziv;
+
     @Column(columnDefinition = "TEXT")
     private String opis;
 
@@ -40,14 +47,21 @@ public class GrupaMisica {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    public void setNaziv(String naziv) {
+        this.naziv = naziv;
+        this.normalizovanNaziv = NazivNormalizer.normalize(naziv);
+    }
+
     @PrePersist
     protected void onCreate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.domain;
+
+import java.util.List;
+
+/**
+ * Zajednicka tabela id-eva za entitete koji se upisuju u velikom broju. Za razliku od IDENTITY
+ * kolone, Hibernate unapred rezervise blok od velicinaBloka id-eva, pa insert-e moze da salje
+ * u JDBC batch-evima. Radi isto na MySQL-u i H2 jer ne zavisi od sekvenci.
+ */
+public final class IdGeneratori {
+
+    public static final String TABELA = "id_generatori";
+    public static final String KOLONA_NAZIV = "naziv";
+    public static final String KOLONA_VREDNOST = "sledeca_vrednost";
+
+    public static final String PLANOVI_TRENINGA = "planovi_treninga";
+    public static final String PLANOVI_VEZBI = "planovi_vezbi";
+    public static final String STAVKE_DNEVNIKA = "stavke_dnevnika";
+
+    // Plan od 30 dana ima oko 30 planova i 200+ stavki; blok pokriva ceo plan jednim dohvatanjem
+    public static final int BLOK_PLANOVI_TRENINGA = 50;
+    public static final int BLOK_PLANOVI_VEZBI = 250;
+    public static final int BLOK_STAVKE_DNEVNIKA = 50;
+
+    public static final List<Generator> SVI = List.of(
+            new Generator(PLANOVI_TRENINGA, BLOK_PLANOVI_TRENINGA),
+            new Generator(PLANOVI_VEZBI, BLOK_PLANOVI_VEZBI),
+            new Generator(STAVKE_DNEVNIKA, BLOK_STAVKE_DNEVNIKA));
+
+    private IdGeneratori() {
+    }
+
+    /**
+     * Naziv segmenta je ujedno i naziv tabele entiteta.
+     */
+    public record Generator(String tabela, int velicinaBloka) {
+    }
+}
@@ -9,11 +9,13 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "kategorije_vezba")
+@Table(name = "kategorije_vezba", uniqueConstraints = @UniqueConstraint(name = "uk_kategorije_vezba_normalizovan_naziv", columnNames = "normalizovan_naziv"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +28,11 @@ public class KategorijaVezbe {
     @Column(unique = true)
     private String naziv;
 
+    // Izvodi se iz naziva (setNaziv i pre upisa); stari redovi se popunjavaju u NormalizovanNazivBackfill
+    @Column(name = "normalizovan_naziv")
+    @Setter(AccessLevel.NONE)
+    private String normalizovanNaziv;
+
     @OneToMany(mappedBy = "kategorija", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Vezba> vezbe;
 
@@ -35,14 +42,21 @@ public class KategorijaVezbe {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    public void setNaziv(String naziv) {
+        this.naziv = naziv;
+        this.normalizovanNaziv = NazivNormalizer.normalize(naziv);
+    }
+
     @PrePersist
     protected void onCreate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.domain;
+
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Privremena blokada prijave za IP adresu ili email, deljena izmedju instanci backend-a.
+ */
+@Entity
+@Table(name = "login_blocks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "throttle_key", nullable = false, unique = true, length = 320)
+    private String throttleKey;
+
+    // epoch millis
+    @Column(name = "blocked_until", nullable = false)
+    private Long blockedUntil;
+}
@@ -0,0 +1,39 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.domain;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Kljuc za poredjenje naziva bez obzira na velika i mala slova i visak razmaka.
+ * Cuva se u koloni normalizovan_naziv, pa se pretraga radi preko obicnog indeksa.
+ * fold dodatno uklanja dijakritike; koriste ga pretraga kataloga i prepoznavanje cilja plana.
+ */
+public final class NazivNormalizer {
+
+    private static final Pattern DIJAKRITICI = Pattern.compile("\\p{M}+");
+
+    private NazivNormalizer() {
+    }
+
+    public static String normalize(String naziv) {
+        if (naziv == null) {
+            return null;
+        }
+        return naziv.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Mala slova i latinica bez dijakritika, tako da "cucanj" odgovara "Čučanj"
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        // đ nema dekompoziciju u Unicode-u; piše se kao "dj" kada tastatura nema slovo
+        String lower = text.toLowerCase(Locale.ROOT).replace("đ", "dj");
+        return DIJAKRITICI.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -20,7 +20,10 @@ import java.util.List;
 public class PlanTreninga {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneratori.PLANOVI_TRENINGA)
+    @TableGenerator(name = IdGeneratori.PLANOVI_TRENINGA, table = IdGeneratori.TABELA,
+            pkColumnName = IdGeneratori.KOLONA_NAZIV, valueColumnName = IdGeneratori.KOLONA_VREDNOST,
+            pkColumnValue = IdGeneratori.PLANOVI_TRENINGA, allocationSize = IdGeneratori.BLOK_PLANOVI_TRENINGA)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,7 +20,10 @@ import java.time.LocalDateTime;
 public class PlanVezbe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneratori.PLANOVI_VEZBI)
+    @TableGenerator(name = IdGeneratori.PLANOVI_VEZBI, table = IdGeneratori.TABELA,
+            pkColumnName = IdGeneratori.KOLONA_NAZIV, valueColumnName = IdGeneratori.KOLONA_VREDNOST,
+            pkColumnValue = IdGeneratori.PLANOVI_VEZBI, allocationSize = IdGeneratori.BLOK_PLANOVI_VEZBI)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
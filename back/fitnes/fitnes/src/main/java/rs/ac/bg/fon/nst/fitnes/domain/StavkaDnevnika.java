@@ -20,7 +20,10 @@ import java.time.LocalDateTime;
 public class StavkaDnevnika {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneratori.STAVKE_DNEVNIKA)
+    @TableGenerator(name = IdGeneratori.STAVKE_DNEVNIKA, table = IdGeneratori.TABELA,
+            pkColumnName = IdGeneratori.KOLONA_NAZIV, valueColumnName = IdGeneratori.KOLONA_VREDNOST,
+            pkColumnValue = IdGeneratori.STAVKE_DNEVNIKA, allocationSize = IdGeneratori.BLOK_STAVKE_DNEVNIKA)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
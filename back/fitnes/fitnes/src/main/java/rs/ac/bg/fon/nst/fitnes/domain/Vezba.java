@@ -9,11 +9,20 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "vezbe")
+@Table(name = "vezbe", indexes = {
+        @Index(name = "idx_vezbe_normalizovan_naziv", columnList = "normalizovan_naziv"),
+        @Index(name = "idx_vezbe_grupa_kategorija", columnList = "grupa_misica_id, kategorija_id"),
+        // keyset lista vezbi: filter + redosled (normalizovan_naziv, id); InnoDB dodaje id na kraj indeksa
+        @Index(name = "idx_vezbe_grupa_naziv", columnList = "grupa_misica_id, normalizovan_naziv"),
+        @Index(name = "idx_vezbe_kategorija_naziv", columnList = "kategorija_id, normalizovan_naziv"),
+        @Index(name = "idx_vezbe_trener_naziv", columnList = "trener_id, normalizovan_naziv")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +34,11 @@ public class Vezba {
 
     private String naziv;
 
+    // Izvodi se iz naziva (setNaziv i pre upisa); stari redovi se popunjavaju u NormalizovanNazivBackfill
+    @Column(name = "normalizovan_naziv")
+    @Setter(AccessLevel.NONE)
+    private String normalizovanNaziv;
+
     @Column(columnDefinition = "TEXT")
     private String opis;
 
@@ -63,14 +77,21 @@ public class Vezba {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    public void setNaziv(String naziv) {
+        this.naziv = naziv;
+        this.normalizovanNaziv = NazivNormalizer.normalize(naziv);
+    }
+
     @PrePersist
     protected void onCreate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        normalizovanNaziv = NazivNormalizer.normalize(naziv);
         updatedAt = LocalDateTime.now();
     }
 }
@@ -19,4 +19,5 @@ public class AuthResponse {
     private String accessToken; 
     private String tokenType = "Bearer";
     private String role; 
+    private String refreshToken;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broj vezbi za bocni filter kataloga: ukupno, po grupi misica, po kategoriji i po paru
+ * (grupa, kategorija). Parovi bez vezbi se ne salju.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FaseteResponse {
+    private long ukupno;
+    private Map<Long, Long> poGrupi;
+    private Map<Long, Long> poKategoriji;
+    private List<FasetaBroj> parovi;
+}
@@ -0,0 +1,28 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stanje asinhronog generisanja plana. Dani se cuvaju u delovima, pa sacuvanoDana i planIds
+ * rastu tokom rada; posle GRESKA ostaju sacuvani delovi upisani pre greske.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerisanjeStatusResponse {
+    private String jobId;
+    // CEKA, RADI, ZAVRSEN ili GRESKA
+    private String status;
+    private int ukupnoDana;
+    private int sacuvanoDana;
+    private long seed;
+    private List<Long> planIds;
+    private String greska;
+}
@@ -19,5 +19,5 @@ public class GrupaMisicaResponse {
     private String naziv;
     private String opis;
     private String slika; 
-    private List<VezbaResponse> vezbe;
+    private List<VezbaSummary> vezbe;
 }
@@ -0,0 +1,21 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.dto;
+
+import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
+
+/**
+ * Red upita grupe sa vezbama: grupa se ponavlja u svakom redu, a vezba je null kada grupa
+ * nema nijednu (odgovarajucu) vezbu.
+ */
+public record GrupaVezbaRed(GrupaMisica grupa, VezbaSummary vezba) {
+
+    // Konstruktor za projekciju ("select new ...") u GrupaMisicaRepository; kolone vezbe dolaze iz left join-a
+    public GrupaVezbaRed(GrupaMisica grupa, Long vezbaId, String naziv, String slika, Integer preporuceniBrojSerija,
+                         Integer preporuceniBrojPonavljanja, Long kategorijaId, String kategorijaNaziv) {
+        this(grupa, vezbaId == null ? null : new VezbaSummary(vezbaId, naziv, slika, preporuceniBrojSerija,
+                preporuceniBrojPonavljanja, kategorijaId, kategorijaNaziv, grupa.getId()));
+    }
+}
@@ -24,4 +24,7 @@ public class PlanTreningaGenerationRequest {
     private int brojDana;
 
     private List<String> grupeMisica;
+
+    // Opciono; bez njega se bira nasumican seed i vraca u odgovoru
+    private Long seed;
 }
@@ -15,7 +15,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class PlanVezbeResponse {
     private Long id;
-    private VezbaResponse vezba;
+    private VezbaSummary vezba;
     private Integer brojSerija;
     private Integer brojPonavljanja;
     
@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Skraceni prikaz vezbe za liste (lista vezbi, vezbe grupe, stavke plana), bez TEXT kolona
+ * opis, misiciNaKojeUtice i savet. Ceo opis vraca samo GET /api/vezbe/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VezbaSummary {
+    private Long id;
+    private String naziv;
+    private String slika;
+    private Integer preporuceniBrojSerija;
+    private Integer preporuceniBrojPonavljanja;
+    private KategorijaVezbeResponse kategorija;
+    // Sluzi za grupisanje kataloga po grupama, ne salje se klijentu
+    @JsonIgnore
+    private Long grupaMisicaId;
+
+    // Konstruktor za projekcije ("select new ...") u VezbaRepository
+    public VezbaSummary(Long id, String naziv, String slika, Integer preporuceniBrojSerija,
+                        Integer preporuceniBrojPonavljanja, Long kategorijaId, String kategorijaNaziv,
+                        Long grupaMisicaId) {
+        this(id, naziv, slika != null ? "/uploads/" + slika : null, preporuceniBrojSerija,
+                preporuceniBrojPonavljanja, new KategorijaVezbeResponse(kategorijaId, kategorijaNaziv), grupaMisicaId);
+    }
+}
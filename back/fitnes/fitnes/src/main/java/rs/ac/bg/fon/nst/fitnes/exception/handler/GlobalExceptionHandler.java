@@ -5,6 +5,7 @@
 package rs.ac.bg.fon.nst.fitnes.exception.handler;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -19,7 +20,11 @@ import java.util.Map;
 import rs.ac.bg.fon.nst.fitnes.dto.ApiResponse;
 import rs.ac.bg.fon.nst.fitnes.exception.DuplicateEntryException;
 import rs.ac.bg.fon.nst.fitnes.exception.FileUploadException;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidTokenException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
+import rs.ac.bg.fon.nst.fitnes.exception.ServiceBusyException;
+import rs.ac.bg.fon.nst.fitnes.exception.TooManyRequestsException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 
 
@@ -40,6 +45,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.FORBIDDEN);
     }
 
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ApiResponse> handleInvalidTokenException(InvalidTokenException ex, WebRequest request) {
+        ApiResponse apiResponse = new ApiResponse(false, ex.getMessage(), null, ex.getMessage());
+        return new ResponseEntity<>(apiResponse, HttpStatus.UNAUTHORIZED);
+    }
+
    
     @ExceptionHandler(DuplicateEntryException.class)
     public ResponseEntity<ApiResponse> handleDuplicateEntryException(DuplicateEntryException ex, WebRequest request) {
@@ -47,6 +59,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
     }
 
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        ApiResponse apiResponse = new ApiResponse(false, ex.getMessage(), null, ex.getMessage());
+        return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
+    }
+
     
     @ExceptionHandler(FileUploadException.class)
     public ResponseEntity<ApiResponse> handleFileUploadException(FileUploadException ex, WebRequest request) {
@@ -54,6 +73,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse> handleServiceBusyException(ServiceBusyException ex, WebRequest request) {
+        ApiResponse apiResponse = new ApiResponse(false, ex.getMessage(), null, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        ApiResponse apiResponse = new ApiResponse(false, ex.getMessage(), null, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex, WebRequest request) {
@@ -12,6 +12,7 @@ import java.util.List;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
 
 @Mapper(componentModel = "spring", uses = {VezbaMapper.class})
 public interface GrupaMisicaMapper {
@@ -27,6 +28,14 @@ public interface GrupaMisicaMapper {
     @Mapping(target = "vezbe", source = "vezbe")
     GrupaMisicaResponse toGrupaMisicaResponse(GrupaMisica grupaMisica);
 
+    // Grupa sa vec izabranim vezbama, bez citanja kolekcije grupaMisica.vezbe
+    @Mapping(target = "id", source = "grupaMisica.id")
+    @Mapping(target = "naziv", source = "grupaMisica.naziv")
+    @Mapping(target = "opis", source = "grupaMisica.opis")
+    @Mapping(target = "slika", expression = "java(grupaMisica.getSlika() != null ? \"/uploads/\" + grupaMisica.getSlika() : null)")
+    @Mapping(target = "vezbe", source = "vezbe")
+    GrupaMisicaResponse toGrupaMisicaResponse(GrupaMisica grupaMisica, List<VezbaSummary> vezbe);
+
     List<GrupaMisicaResponse> toGrupaMisicaResponseList(List<GrupaMisica> grupeMisica);
 }
 
@@ -24,7 +24,8 @@ public interface PlanVezbeMapper {
     @Mapping(target = "updatedAt", ignore = true)
     PlanVezbe toPlanVezbe(PlanVezbeRequestItem requestItem);
 
-    @Mapping(target = "vezba", source = "vezba")
+    // Vezbu popunjava PlanTreningaService iz projekcije, da se ne bi ucitavale cele vezbe
+    @Mapping(target = "vezba", ignore = true)
     PlanVezbeResponse toPlanVezbeResponse(PlanVezbe planVezbe);
 
     List<PlanVezbeResponse> toPlanVezbeResponseList(List<PlanVezbe> planoviVezbi);
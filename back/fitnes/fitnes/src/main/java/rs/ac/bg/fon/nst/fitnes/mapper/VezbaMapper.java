@@ -14,6 +14,7 @@ import java.util.List;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
 
 @Mapper(componentModel = "spring", uses = {KategorijaVezbeMapper.class})
 public interface VezbaMapper {
@@ -48,4 +49,8 @@ public interface VezbaMapper {
     VezbaResponse toVezbaResponse(Vezba vezba);
 
     List<VezbaResponse> toVezbaResponseList(List<Vezba> vezbe);
+
+    @Mapping(target = "slika", expression = "java(vezba.getSlika() != null ? \"/uploads/\" + vezba.getSlika() : null)")
+    @Mapping(target = "grupaMisicaId", source = "grupaMisica.id")
+    VezbaSummary toVezbaSummary(Vezba vezba);
 }
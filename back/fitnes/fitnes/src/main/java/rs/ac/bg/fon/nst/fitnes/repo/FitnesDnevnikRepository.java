@@ -4,8 +4,10 @@
  */
 package rs.ac.bg.fon.nst.fitnes.repo;
 
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
@@ -16,4 +18,10 @@ public interface FitnesDnevnikRepository extends JpaRepository<FitnesDnevnik, Lo
 
    
     Page<FitnesDnevnik> findByVezbac(User vezbac, Pageable pageable);
+
+    // Provera vlasnistva ide kroz WHERE (id, vezbac_id), bez ucitavanja vezbaca; stavke stizu istim upitom.
+    @EntityGraph(attributePaths = "stavkeDnevnika")
+    Optional<FitnesDnevnik> findByIdAndVezbacId(Long id, Integer vezbacId);
+
+    boolean existsByIdAndVezbacId(Long id, Integer vezbacId);
 }
\ No newline at end of file
@@ -4,10 +4,42 @@
  */
 package rs.ac.bg.fon.nst.fitnes.repo;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
+import rs.ac.bg.fon.nst.fitnes.dto.GrupaVezbaRed;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.NazivPopularnost;
 
 @Repository
 public interface GrupaMisicaRepository extends JpaRepository<GrupaMisica, Long> {
+
+    // Grupa i njene vezbe (sa kategorijom) u jednom upitu; vezbe se biraju preko indeksa (grupa_misica_id, kategorija_id)
+    String SA_VEZBAMA = "select new rs.ac.bg.fon.nst.fitnes.dto.GrupaVezbaRed(g, v.id, v.naziv, v.slika, "
+            + "v.preporuceniBrojSerija, v.preporuceniBrojPonavljanja, k.id, k.naziv) from GrupaMisica g ";
+
+    @Query(SA_VEZBAMA + "left join Vezba v on v.grupaMisica = g left join v.kategorija k "
+            + "where g.id = :id order by v.id")
+    List<GrupaVezbaRed> findSaVezbama(@Param("id") Long id);
+
+    @Query(SA_VEZBAMA + "left join Vezba v on v.grupaMisica = g and v.kategorija.id = :kategorijaId "
+            + "left join v.kategorija k where g.id = :id order by v.id")
+    List<GrupaVezbaRed> findSaVezbamaKategorije(@Param("id") Long id, @Param("kategorijaId") Long kategorijaId);
+
+    // Argument mora biti vec normalizovan (NazivNormalizer)
+    boolean existsByNormalizovanNaziv(String normalizovanNaziv);
+
+    List<GrupaMisica> findByNormalizovanNazivIsNull();
+
+    // Poslednja izmena grupa misica; null ako ih nema
+    @Query("select max(g.updatedAt) from GrupaMisica g")
+    LocalDateTime findMaxUpdatedAt();
+
+    // Popularnost grupe = zbir pojavljivanja njenih vezbi u planovima
+    @Query("select new rs.ac.bg.fon.nst.fitnes.service.catalog.NazivPopularnost(g.id, g.naziv, count(pv.id)) "
+            + "from GrupaMisica g left join g.vezbe v left join v.planoviVezbi pv group by g.id, g.naziv")
+    List<NazivPopularnost> findNaziviSaPopularnoscu();
 }
@@ -4,11 +4,20 @@
  */
 package rs.ac.bg.fon.nst.fitnes.repo;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
 
 @Repository
 public interface KategorijaVezbeRepository extends JpaRepository<KategorijaVezbe, Long> {
+
+    List<KategorijaVezbe> findByNormalizovanNazivIsNull();
+
+    // Poslednja izmena kategorija; null ako ih nema
+    @Query("select max(k.updatedAt) from KategorijaVezbe k")
+    LocalDateTime findMaxUpdatedAt();
 }
 
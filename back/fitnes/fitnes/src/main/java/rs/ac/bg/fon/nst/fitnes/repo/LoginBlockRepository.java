@@ -0,0 +1,28 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ac.bg.fon.nst.fitnes.domain.LoginBlock;
+
+@Repository
+public interface LoginBlockRepository extends JpaRepository<LoginBlock, Long> {
+
+    Optional<LoginBlock> findByThrottleKey(String throttleKey);
+
+    List<LoginBlock> findByBlockedUntilGreaterThan(Long now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from LoginBlock b where b.blockedUntil < :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -4,8 +4,10 @@
  */
 package rs.ac.bg.fon.nst.fitnes.repo;
 
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import rs.ac.bg.fon.nst.fitnes.domain.PlanTreninga;
@@ -16,4 +18,9 @@ public interface PlanTreningaRepository extends JpaRepository<PlanTreninga, Long
 
     
     Page<PlanTreninga> findByVezbac(User vezbac, Pageable pageable);
+
+    // Detalj plana sa stavkama u jednom upitu; stranice idu preko batch fetch-a.
+    // Vezbe stavki se citaju posebno, kao VezbaSummary projekcija.
+    @EntityGraph(attributePaths = "planoviVezbi")
+    Optional<PlanTreninga> findByIdAndVezbacId(Long id, Integer vezbacId);
 }
@@ -8,6 +8,8 @@ package rs.ac.bg.fon.nst.fitnes.repo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
@@ -20,4 +22,8 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
    
      Page<User> findByRole_Role(String roleName, Pageable pageable);
+
+    
+    @Query("select r.role from Role r where r.user.id = :userId")
+    Optional<String> findRoleByUserId(@Param("userId") Integer userId);
 }
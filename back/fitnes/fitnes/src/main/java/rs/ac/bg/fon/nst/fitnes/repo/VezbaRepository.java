@@ -5,13 +5,65 @@
 package rs.ac.bg.fon.nst.fitnes.repo;
 
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.NazivPopularnost;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaDokument;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaFaseta;
+import rs.ac.bg.fon.nst.fitnes.service.plan.VezbaKandidat;
 
 @Repository
-public interface VezbaRepository extends JpaRepository<Vezba, Long> {
-        List<Vezba> findByGrupaMisicaNazivIgnoreCase(String grupaMisicaNaziv);
+public interface VezbaRepository extends JpaRepository<Vezba, Long>, JpaSpecificationExecutor<Vezba>, VezbaRepositoryCustom {
+
+        // Projekcija za liste: bez TEXT kolona i bez entiteta u persistence kontekstu
+        String SUMMARY = "select new rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary(v.id, v.naziv, v.slika, "
+                + "v.preporuceniBrojSerija, v.preporuceniBrojPonavljanja, k.id, k.naziv, v.grupaMisica.id) "
+                + "from Vezba v join v.kategorija k ";
+
+        // Kandidati za generisanje plana iz svih trazenih grupa jednim upitom; nazivi moraju biti
+        // vec normalizovani (NazivNormalizer), da bi se koristio indeks
+        @Query("select new rs.ac.bg.fon.nst.fitnes.service.plan.VezbaKandidat(v.id, v.preporuceniBrojSerija, "
+                + "v.preporuceniBrojPonavljanja, g.id, v.kategorija.id) from Vezba v join v.grupaMisica g "
+                + "where g.normalizovanNaziv in :nazivi order by v.id")
+        List<VezbaKandidat> findKandidatiByGrupaMisicaNormalizovanNazivIn(@Param("nazivi") Collection<String> nazivi);
+
+        List<Vezba> findByNormalizovanNazivIsNull();
+
+        // Vezbe svih grupa za katalog, grupisu se po grupaMisicaId
+        @Query(SUMMARY + "order by v.grupaMisica.id, v.id")
+        List<VezbaSummary> findAllSummaries();
+
+        @Query(SUMMARY + "where v.id in :ids")
+        List<VezbaSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+        // Ceo katalog za indekse u memoriji, bez entiteta
+        @Query("select new rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaDokument(v.id, v.naziv, v.opis, "
+                + "v.misiciNaKojeUtice, v.savet, v.slika, v.preporuceniBrojSerija, v.preporuceniBrojPonavljanja, "
+                + "k.id, k.naziv, v.grupaMisica.id, t.id) from Vezba v join v.kategorija k left join v.trener t")
+        List<VezbaDokument> findAllDokumenti();
+
+        @Query("select new rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaFaseta(v.id, v.grupaMisica.id, "
+                + "v.kategorija.id, t.id) from Vezba v left join v.trener t")
+        List<VezbaFaseta> findAllFasete();
+
+        // Popularnost vezbe = broj stavki planova u kojima se pojavljuje
+        @Query("select new rs.ac.bg.fon.nst.fitnes.service.catalog.NazivPopularnost(v.id, v.naziv, count(pv.id)) "
+                + "from Vezba v left join v.planoviVezbi pv group by v.id, v.naziv")
+        List<NazivPopularnost> findNaziviSaPopularnoscu();
+
+        // Poslednja izmena vezbi; null ako ih nema
+        @Query("select max(v.updatedAt) from Vezba v")
+        LocalDateTime findMaxUpdatedAt();
+
+        // true ako vezba ima trenera i to nije dati korisnik; vezbe bez trenera moze menjati svako
+        boolean existsByIdAndTrenerIdNot(Long id, Integer trenerId);
 }
 
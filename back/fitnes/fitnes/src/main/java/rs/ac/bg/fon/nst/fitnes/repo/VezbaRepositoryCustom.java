@@ -0,0 +1,17 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+
+public interface VezbaRepositoryCustom {
+
+    // Kao findBy(spec, ...), ali bira samo kolone VezbaSummary umesto celih entiteta
+    List<VezbaSummary> findSummaries(Specification<Vezba> specification, Sort sort, int limit);
+}
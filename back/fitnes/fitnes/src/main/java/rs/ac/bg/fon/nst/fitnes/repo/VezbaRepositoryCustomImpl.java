@@ -0,0 +1,52 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+
+class VezbaRepositoryCustomImpl implements VezbaRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    VezbaRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<VezbaSummary> findSummaries(Specification<Vezba> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VezbaSummary> query = cb.createQuery(VezbaSummary.class);
+        Root<Vezba> vezba = query.from(Vezba.class);
+        Join<Vezba, KategorijaVezbe> kategorija = vezba.join("kategorija");
+
+        // isti redosled argumenata kao VezbaRepository.SUMMARY
+        query.select(cb.construct(VezbaSummary.class,
+                vezba.get("id"), vezba.get("naziv"), vezba.get("slika"),
+                vezba.get("preporuceniBrojSerija"), vezba.get("preporuceniBrojPonavljanja"),
+                kategorija.get("id"), kategorija.get("naziv"), vezba.get("grupaMisica").get("id")));
+
+        Predicate predicate = specification.toPredicate(vezba, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, vezba, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
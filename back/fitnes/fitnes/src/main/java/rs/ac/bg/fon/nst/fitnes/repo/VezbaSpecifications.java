@@ -0,0 +1,50 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+
+/**
+ * Filteri za listu vezbi. Svaki se oslanja na indeks (kolona filtera, normalizovan_naziv),
+ * pa keyset stranica cita samo redove koje vraca.
+ */
+public final class VezbaSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private VezbaSpecifications() {
+    }
+
+    public static Specification<Vezba> uGrupi(Long grupaMisicaId) {
+        return (root, query, cb) -> cb.equal(root.get("grupaMisica").get("id"), grupaMisicaId);
+    }
+
+    public static Specification<Vezba> uKategoriji(Long kategorijaId) {
+        return (root, query, cb) -> cb.equal(root.get("kategorija").get("id"), kategorijaId);
+    }
+
+    public static Specification<Vezba> odTrenera(Integer trenerId) {
+        return (root, query, cb) -> cb.equal(root.get("trener").get("id"), trenerId);
+    }
+
+    // Prefiks mora biti normalizovan (NazivNormalizer)
+    public static Specification<Vezba> nazivPocinjeSa(String normalizovanPrefiks) {
+        String pattern = normalizovanPrefiks
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("normalizovanNaziv"), pattern, ESCAPE);
+    }
+
+    // Redovi posle kursora u redosledu (normalizovan_naziv, id)
+    public static Specification<Vezba> posle(String normalizovanNaziv, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("normalizovanNaziv"), normalizovanNaziv),
+                cb.and(
+                        cb.equal(root.get("normalizovanNaziv"), normalizovanNaziv),
+                        cb.greaterThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt sa cenom izmerenom pri pokretanju. Za razliku od BCryptPasswordEncoder-a,
+ * upgradeEncoding vraca true i kada je hes skuplji od trenutne cene, pa se pri prijavi
+ * hes prilagodjava u oba smera.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    public static final int MIN_STRENGTH = 4;
+    public static final int MAX_STRENGTH = 16;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Meri trajanje hesa na maloj ceni i ekstrapolira, jer svaki korak cene udvostrucuje posao.
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrated(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("zagrevanje");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("kalibracija");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return new AdaptiveBCryptPasswordEncoder(strengthFor(targetMillis, best / 1_000_000.0, minStrength, maxStrength));
+    }
+
+    static int strengthFor(long targetMillis, double probeMillis, int minStrength, int maxStrength) {
+        int strength = PROBE_STRENGTH;
+        if (probeMillis > 0) {
+            strength += (int) Math.round(Math.log(targetMillis / probeMillis) / Math.log(2));
+        }
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
+import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
+import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+
+/**
+ * Trenutno prijavljeni korisnik, razresen jednom po zahtevu. Id se cita iz principala
+ * koji je postavio JwtAuthenticationFilter, pa vecina zahteva ne radi nijedan upit.
+ */
+@Component
+@RequestScope
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    private Integer userId;
+    private User loadedUser;
+
+    public CurrentUserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Integer getUserId() {
+        if (userId == null) {
+            userId = resolveUserId();
+        }
+        return userId;
+    }
+
+    /**
+     * Lenja referenca na korisnika; ne izvrsava SELECT dok se ne pristupi poljima osim id-a.
+     */
+    public User getUserReference() {
+        Integer id = getUserId();
+        if (loadedUser != null) {
+            return loadedUser;
+        }
+        return userRepository.getReferenceById(id);
+    }
+
+    private Integer resolveUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getId() != null) {
+            return principal.getId();
+        }
+        String email = authentication.getName();
+        loadedUser = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
+        return loadedUser.getId();
+    }
+}
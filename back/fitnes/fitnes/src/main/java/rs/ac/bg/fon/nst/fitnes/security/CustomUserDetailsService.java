@@ -4,19 +4,18 @@
  */
 package rs.ac.bg.fon.nst.fitnes.security;
 
-import java.util.Collections;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
 
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -29,14 +28,17 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
 
-        
-         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().getRole().toUpperCase());
-     
+        return UserPrincipal.fromUser(user);
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                 Collections.singletonList(authority)
-        );
+    // Poziva ga DaoAuthenticationProvider posle uspesne prijave kada hes nema trenutnu BCrypt cenu.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Korisnik sa emailom " + userDetails.getUsername() + " nije pronađen."));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        return UserPrincipal.fromUser(user);
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Detalji autentifikacije sa id-jem i istekom tokena iz kog je napravljena, potrebni za odjavu.
+ */
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final String tokenId;
+    private final long expiresAt;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, String tokenId, long expiresAt) {
+        super(request);
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
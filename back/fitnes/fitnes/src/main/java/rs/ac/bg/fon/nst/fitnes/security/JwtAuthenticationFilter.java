@@ -4,31 +4,41 @@
  */
 package rs.ac.bg.fon.nst.fitnes.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService; 
+    private final UserDetailsService userDetailsService;
+    private final UserStatusVerifier userStatusVerifier;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final boolean statelessAuth;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService,
+                                   UserStatusVerifier userStatusVerifier, TokenRevocationStore tokenRevocationStore,
+                                   @Value("${jwt.stateless-auth:false}") boolean statelessAuth) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.userStatusVerifier = userStatusVerifier;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.statelessAuth = statelessAuth;
     }
 
     @Override
@@ -36,32 +46,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        
+
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsername(token);
-            
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Claims claims = StringUtils.hasText(token) ? jwtTokenProvider.parseClaims(token) : null;
+
+        if (claims != null && !isRevoked(claims)) {
+            UserDetails userDetails = resolveUserDetails(claims);
 
-            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null, 
-                    userDetails.getAuthorities()
-            );
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
 
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                authenticationToken.setDetails(new JwtAuthenticationDetails(
+                        request, claims.getId(), claims.getExpiration().getTime()));
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
-   
+
+    private boolean isRevoked(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        return tokenRevocationStore.isRevoked(claims.getId(),
+                claims.get(JwtTokenProvider.CLAIM_USER_ID, Integer.class),
+                issuedAt != null ? issuedAt.getTime() : 0L);
+    }
+
+
+    private UserDetails resolveUserDetails(Claims claims) {
+        Integer userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Integer.class);
+
+        // Stari tokeni bez "uid" claim-a i dalje idu preko baze.
+        if (!statelessAuth || userId == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        String roles = claims.get(JwtTokenProvider.CLAIM_ROLES, String.class);
+        if (!userStatusVerifier.isCurrent(userId, roles)) {
+            return null;
+        }
+        return UserPrincipal.fromClaims(userId, claims.getSubject(), roles);
+    }
+
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7); 
+            return bearerToken.substring(7);
         }
         return null;
     }
@@ -7,77 +7,87 @@ package rs.ac.bg.fon.nst.fitnes.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey; 
+import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
+
+    private final SecretKey key;
+    private final JwtParser jwtParser;
+    private final long jwtExpirationDate;
+
+    // Kljuc i parser su nepromenljivi i thread-safe, pa se prave jednom umesto pri svakom pozivu.
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration-milliseconds}") long jwtExpirationDate) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.jwtExpirationDate = jwtExpirationDate;
+    }
 
-    @Value("${jwt.expiration-milliseconds}")
-    private long jwtExpirationDate; 
 
-   
     public String generateToken(Authentication authentication) {
-        String username = authentication.getName(); 
+        String username = authentication.getName();
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
 
-      
+
         String roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .claim("roles", roles) 
-                .issuedAt(new Date())
+                .claim(CLAIM_ROLES, roles);
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId());
+        }
+
+        return builder
+                .issuedAt(currentDate)
                 .expiration(expireDate)
-                .signWith(key())
+                .signWith(key)
                 .compact();
     }
 
-   
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-  
-    public String getUsername(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
-    }
 
-   
-    public boolean validateToken(String token) {
+    /**
+     * Parsira i verifikuje token tacno jednom. Vraca claims ako je token validan, inace null.
+     * Poziva se na svakom zahtevu, pa se los ili istekao token belezi samo na debug nivou.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key())
-                    .build()
-                    .parse(token);
-            return true;
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            log.debug("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("Expired JWT token: " + e.getMessage());
+            log.debug("Expired JWT token: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("Unsupported JWT token: " + e.getMessage());
+            log.debug("Unsupported JWT token: {}", e.getMessage());
+        } catch (SignatureException e) {
+            log.debug("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            log.debug("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+/**
+ * Objavljuje UserService pri brisanju naloga. UserStatusVerifier ga obradjuje tek posle commit-a,
+ * jer bi zahtev izmedju ponistavanja i commit-a ponovo upisao u kes stari status iz baze.
+ */
+public record KorisnikObrisanEvent(Integer userId) {
+}
@@ -0,0 +1,172 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rs.ac.bg.fon.nst.fitnes.domain.LoginBlock;
+import rs.ac.bg.fon.nst.fitnes.exception.TooManyRequestsException;
+import rs.ac.bg.fon.nst.fitnes.repo.LoginBlockRepository;
+
+/**
+ * Ogranicava prijave i registracije po IP adresi i po email-u pre nego sto se potrosi BCrypt.
+ * Svaki kljuc je token bucket u GCRA obliku: jedan AtomicLong sa teorijskim vremenom sledeceg
+ * dolaska, azuriran preko CAS-a, bez zakljucavanja. Broj kljuceva je ogranicen.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String MESSAGE = "Previše pokušaja prijave. Pokušajte ponovo kasnije.";
+
+    private final LoginBlockRepository loginBlockRepository;
+    private final Bucket ipBucket;
+    private final Bucket emailBucket;
+    private final int maxKeys;
+    private final boolean shared;
+    // kljuc -> blokiran do (epoch millis); blokade sa drugih instanci kada je shared=true
+    private final Map<String, Long> blocks = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public LoginRateLimiter(LoginBlockRepository loginBlockRepository,
+                            @Value("${security.login-throttle.ip.limit:20}") int ipLimit,
+                            @Value("${security.login-throttle.ip.period-seconds:60}") long ipPeriodSeconds,
+                            @Value("${security.login-throttle.email.limit:5}") int emailLimit,
+                            @Value("${security.login-throttle.email.period-seconds:300}") long emailPeriodSeconds,
+                            @Value("${security.login-throttle.max-keys:100000}") int maxKeys,
+                            @Value("${security.login-throttle.shared:false}") boolean shared) {
+        this.loginBlockRepository = loginBlockRepository;
+        this.ipBucket = new Bucket(ipLimit, TimeUnit.SECONDS.toMillis(ipPeriodSeconds));
+        this.emailBucket = new Bucket(emailLimit, TimeUnit.SECONDS.toMillis(emailPeriodSeconds));
+        this.maxKeys = maxKeys;
+        this.shared = shared;
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        long now = System.currentTimeMillis();
+        check("ip:" + clientIp, ipBucket, now);
+        if (email != null) {
+            check("email:" + email.trim().toLowerCase(Locale.ROOT), emailBucket, now);
+        }
+    }
+
+    public void checkRegister(String clientIp) {
+        check("ip:" + clientIp, ipBucket, System.currentTimeMillis());
+    }
+
+    private void check(String key, Bucket bucket, long now) {
+        Long blockedUntil = blocks.get(key);
+        if (blockedUntil != null && blockedUntil > now) {
+            throw tooManyRequests(blockedUntil - now);
+        }
+
+        long waitMillis = bucket.tryAcquire(key, now);
+        if (bucket.size() > maxKeys) {
+            sweep(now);
+        }
+        if (waitMillis > 0) {
+            if (shared) {
+                share(key, now + waitMillis);
+            }
+            throw tooManyRequests(waitMillis);
+        }
+    }
+
+    private void share(String key, long until) {
+        Long previous = blocks.put(key, until);
+        if (previous != null && previous >= until) {
+            return;
+        }
+        try {
+            LoginBlock block = loginBlockRepository.findByThrottleKey(key)
+                    .orElseGet(() -> new LoginBlock(null, key, until));
+            block.setBlockedUntil(Math.max(block.getBlockedUntil(), until));
+            loginBlockRepository.save(block);
+        } catch (DataIntegrityViolationException e) {
+            // druga instanca je istovremeno upisala isti kljuc; njena blokada je dovoljna
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-throttle.sync-interval-ms:10000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        if (shared) {
+            for (LoginBlock block : loginBlockRepository.findByBlockedUntilGreaterThan(now)) {
+                blocks.merge(block.getThrottleKey(), block.getBlockedUntil(), Math::max);
+            }
+            loginBlockRepository.deleteExpired(now);
+        }
+        blocks.values().removeIf(until -> until <= now);
+        sweep(now);
+    }
+
+    private void sweep(long now) {
+        if (sweeping.compareAndSet(false, true)) {
+            try {
+                ipBucket.evict(now, maxKeys);
+                emailBucket.evict(now, maxKeys);
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+
+    private static TooManyRequestsException tooManyRequests(long waitMillis) {
+        return new TooManyRequestsException(MESSAGE, Math.max(1, (waitMillis + 999) / 1000));
+    }
+
+    /**
+     * GCRA: dozvoljava limit zahteva odjednom, a zatim jedan na svakih period/limit.
+     */
+    static final class Bucket {
+
+        private final long emissionInterval;
+        private final long burstTolerance;
+        private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+        Bucket(int limit, long periodMillis) {
+            this.emissionInterval = Math.max(1, periodMillis / limit);
+            this.burstTolerance = emissionInterval * limit;
+        }
+
+        /**
+         * Vraca 0 ako je zahtev dozvoljen, inace broj milisekundi do sledeceg dozvoljenog.
+         */
+        long tryAcquire(String key, long now) {
+            AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + emissionInterval;
+                long wait = next - now - burstTolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        int size() {
+            return arrivals.size();
+        }
+
+        void evict(long now, int maxKeys) {
+            // kljucevi ciji je bucket ponovo pun nose isto stanje kao nepostojeci
+            arrivals.values().removeIf(arrival -> arrival.get() <= now);
+            if (arrivals.size() > maxKeys) {
+                // i dalje previse: zadrzavaju se samo kljucevi koji su trenutno ograniceni
+                arrivals.values().removeIf(arrival -> arrival.get() + emissionInterval - now <= burstTolerance);
+            }
+        }
+    }
+}
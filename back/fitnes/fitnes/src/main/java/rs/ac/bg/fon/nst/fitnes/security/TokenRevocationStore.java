@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rs.ac.bg.fon.nst.fitnes.domain.RevokedToken;
+import rs.ac.bg.fon.nst.fitnes.repo.RevokedTokenRepository;
+
+/**
+ * Opozvani JWT tokeni u memoriji: po jti-ju (odjava) i po korisniku kao "not before"
+ * trenutak (brisanje naloga). Unosi zive dok bi token ionako vazio. Provera u filteru
+ * je jedno citanje iz mape i ne alocira. Kada je jwt.revocation.shared=true, opozivi se
+ * upisuju u tabelu revoked_tokens i periodicno citaju sa ostalih instanci.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long maxTokenLifetimeMillis;
+    private final boolean shared;
+
+    // jti -> trenutak isteka tokena
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> tokeni izdati pre ovog trenutka su nevazeci
+    private final Map<Integer, Long> notBefore = new ConcurrentHashMap<>();
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                @Value("${jwt.expiration-milliseconds}") long maxTokenLifetimeMillis,
+                                @Value("${jwt.revocation.shared:false}") boolean shared) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.maxTokenLifetimeMillis = maxTokenLifetimeMillis;
+        this.shared = shared;
+    }
+
+    public boolean isRevoked(String tokenId, Integer userId, long issuedAtMillis) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (userId != null) {
+            Long cutoff = notBefore.get(userId);
+            return cutoff != null && issuedAtMillis < cutoff;
+        }
+        return false;
+    }
+
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokens.put(tokenId, expiresAtMillis);
+        if (shared) {
+            revokedTokenRepository.save(new RevokedToken(null, tokenId, null, null, expiresAtMillis, null));
+        }
+    }
+
+    /**
+     * Opoziva sve do sada izdate tokene korisnika.
+     */
+    public void revokeAllForUser(Integer userId) {
+        long now = System.currentTimeMillis();
+        // iat u JWT-u je u sekundama, pa se granica zaokruzuje na sledecu sekundu
+        long cutoff = (now / 1000 + 1) * 1000;
+        notBefore.merge(userId, cutoff, Math::max);
+        if (shared) {
+            revokedTokenRepository.save(new RevokedToken(null, null, userId, cutoff, cutoff + maxTokenLifetimeMillis, null));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        if (shared) {
+            // Cita se ceo skup vazecih opoziva, ne samo id-evi posle poslednjeg procitanog: IDENTITY
+            // id se dodeljuje pri insert-u, a red postaje vidljiv tek pri commit-u, pa manji id moze
+            // da stigne posle veceg. Tabela je mala (redovi zive koliko i token), a spajanje je idempotentno.
+            List<RevokedToken> vazeci = revokedTokenRepository.findByExpiresAtGreaterThan(now);
+            for (RevokedToken revoked : vazeci) {
+                if (revoked.getTokenId() != null) {
+                    revokedTokens.put(revoked.getTokenId(), revoked.getExpiresAt());
+                }
+                if (revoked.getUserId() != null && revoked.getNotBefore() != null) {
+                    notBefore.merge(revoked.getUserId(), revoked.getNotBefore(), Math::max);
+                }
+            }
+            revokedTokenRepository.deleteExpired(now);
+        }
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        notBefore.values().removeIf(cutoff -> cutoff + maxTokenLifetimeMillis <= now);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+
+
+public class UserPrincipal implements UserDetails {
+
+    private final Integer id;
+    private final String email;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+    // Entitet iz kog je principal napravljen pri prijavi; null za principal iz JWT-a
+    private final transient User user;
+
+    public UserPrincipal(Integer id, String email, String password, List<GrantedAuthority> authorities) {
+        this(id, email, password, authorities, null);
+    }
+
+    private UserPrincipal(Integer id, String email, String password, List<GrantedAuthority> authorities, User user) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.authorities = authorities;
+        this.user = user;
+    }
+
+    public static UserPrincipal fromUser(User user) {
+        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().getRole().toUpperCase());
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), Collections.singletonList(authority), user);
+    }
+
+    // Principal iz JWT claims-a, bez lozinke i bez upita ka bazi.
+    public static UserPrincipal fromClaims(Integer id, String email, String roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (StringUtils.hasText(roles)) {
+            for (String role : roles.split(",")) {
+                authorities.add(new SimpleGrantedAuthority(role.trim()));
+            }
+        }
+        return new UserPrincipal(id, email, null, Collections.unmodifiableList(authorities));
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+               "id=" + id +
+               ", email='" + email + '\'' +
+               ", authorities=" + authorities +
+               '}';
+    }
+}
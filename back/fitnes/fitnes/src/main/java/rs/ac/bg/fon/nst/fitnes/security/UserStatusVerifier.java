@@ -0,0 +1,82 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+
+/**
+ * Ograniceni kes statusa korisnika za stateless autentifikaciju. Baza se proverava
+ * najvise jednom po intervalu za svakog korisnika, a broj unosa je ogranicen.
+ */
+@Component
+public class UserStatusVerifier {
+
+    private final UserRepository userRepository;
+    private final long checkIntervalMillis;
+    private final int maxEntries;
+    private final Map<Integer, Status> statuses = new ConcurrentHashMap<>();
+
+    public UserStatusVerifier(UserRepository userRepository,
+                              @Value("${jwt.user-check-interval-ms:60000}") long checkIntervalMillis,
+                              @Value("${jwt.user-check-cache-size:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Vraca true ako korisnik i dalje postoji i ima istu ulogu kao u tokenu.
+     */
+    public boolean isCurrent(Integer userId, String rolesClaim) {
+        long now = System.currentTimeMillis();
+        Status status = statuses.get(userId);
+        if (status == null || now - status.checkedAt > checkIntervalMillis) {
+            status = refresh(userId, now);
+        }
+        return status.authority != null && status.authority.equals(rolesClaim);
+    }
+
+    public void invalidate(Integer userId) {
+        statuses.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKorisnikObrisan(KorisnikObrisanEvent event) {
+        invalidate(event.userId());
+    }
+
+    private Status refresh(Integer userId, long now) {
+        String authority = userRepository.findRoleByUserId(userId)
+                .map(role -> "ROLE_" + role.toUpperCase())
+                .orElse(null);
+        Status status = new Status(authority, now);
+        if (statuses.size() >= maxEntries) {
+            evictStale(now);
+        }
+        statuses.put(userId, status);
+        return status;
+    }
+
+    private void evictStale(long now) {
+        Iterator<Status> iterator = statuses.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().checkedAt > checkIntervalMillis) {
+                iterator.remove();
+            }
+        }
+        if (statuses.size() >= maxEntries) {
+            statuses.clear();
+        }
+    }
+
+    private record Status(String authority, long checkedAt) {
+    }
+}
@@ -5,14 +5,11 @@
 package rs.ac.bg.fon.nst.fitnes.service;
 
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Comparator;
 import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
 import rs.ac.bg.fon.nst.fitnes.domain.StavkaDnevnika;
-import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.dto.FitnesDnevnikRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.FitnesDnevnikResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.StavkaDnevnikaRequest;
@@ -23,25 +20,25 @@ import rs.ac.bg.fon.nst.fitnes.mapper.FitnesDnevnikMapper;
 import rs.ac.bg.fon.nst.fitnes.mapper.StavkaDnevnikaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.FitnesDnevnikRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.StavkaDnevnikaRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
 
 @Service
 public class FitnesDnevnikService {
 
     private final FitnesDnevnikRepository fitnesDnevnikRepository;
     private final StavkaDnevnikaRepository stavkaDnevnikaRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final FitnesDnevnikMapper fitnesDnevnikMapper;
     private final StavkaDnevnikaMapper stavkaDnevnikaMapper;
 
     public FitnesDnevnikService(FitnesDnevnikRepository fitnesDnevnikRepository,
                                 StavkaDnevnikaRepository stavkaDnevnikaRepository,
-                                UserRepository userRepository,
+                                CurrentUserResolver currentUserResolver,
                                 FitnesDnevnikMapper fitnesDnevnikMapper,
                                 StavkaDnevnikaMapper stavkaDnevnikaMapper) {
         this.fitnesDnevnikRepository = fitnesDnevnikRepository;
         this.stavkaDnevnikaRepository = stavkaDnevnikaRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
         this.fitnesDnevnikMapper = fitnesDnevnikMapper;
         this.stavkaDnevnikaMapper = stavkaDnevnikaMapper;
     }
@@ -49,15 +46,10 @@ public class FitnesDnevnikService {
  
     @Transactional(readOnly = true)
     public FitnesDnevnikResponse getDnevnikById(Long id) {
-        User currentUser = getAuthenticatedUser();
+        Integer currentUserId = currentUserResolver.getUserId();
 
-        FitnesDnevnik dnevnik = fitnesDnevnikRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Dnevnik", "id", id));
-
-       
-        if(dnevnik.getVezbac().getId() != currentUser.getId()) {
-            throw new UnauthorizedAccessException("Nemate dozvolu za pregled dnevnika.");
-        }
+        FitnesDnevnik dnevnik = fitnesDnevnikRepository.findByIdAndVezbacId(id, currentUserId)
+                .orElseThrow(() -> notFoundOrForbidden(id, "Nemate dozvolu za pregled dnevnika."));
 
        
         dnevnik.getStavkeDnevnika().sort(Comparator.comparing(StavkaDnevnika::getDatum).reversed());
@@ -68,10 +60,8 @@ public class FitnesDnevnikService {
   
     @Transactional
     public FitnesDnevnikResponse createDnevnik(FitnesDnevnikRequest request) {
-        User currentUser = getAuthenticatedUser();
-
         FitnesDnevnik dnevnik = fitnesDnevnikMapper.toFitnesDnevnik(request);
-        dnevnik.setVezbac(currentUser); 
+        dnevnik.setVezbac(currentUserResolver.getUserReference()); 
         FitnesDnevnik savedDnevnik = fitnesDnevnikRepository.save(dnevnik);
         return fitnesDnevnikMapper.toFitnesDnevnikResponse(savedDnevnik);
     }
@@ -79,33 +69,25 @@ public class FitnesDnevnikService {
    
     @Transactional
     public StavkaDnevnikaResponse addStavkaToDnevnik(Long dnevnikId, StavkaDnevnikaRequest request) {
-        User currentUser = getAuthenticatedUser();
+        Integer currentUserId = currentUserResolver.getUserId();
 
-        FitnesDnevnik dnevnik = fitnesDnevnikRepository.findById(dnevnikId)
-                .orElseThrow(() -> new ResourceNotFoundException("Dnevnik", "id", dnevnikId));
-
-        if (
-            dnevnik.getVezbac().getId() != currentUser.getId()) { 
-            throw new UnauthorizedAccessException("Nemate dozvolu za dodavanje stavke u ovaj dnevnik.");
+        if (!fitnesDnevnikRepository.existsByIdAndVezbacId(dnevnikId, currentUserId)) {
+            throw notFoundOrForbidden(dnevnikId, "Nemate dozvolu za dodavanje stavke u ovaj dnevnik.");
         }
-        System.out.println(dnevnik.getVezbac().getId());
-        System.out.println(currentUser.getId());
 
         StavkaDnevnika stavka = stavkaDnevnikaMapper.toStavkaDnevnika(request);
-        stavka.setDnevnik(dnevnik); // Povezivanje stavke sa dnevnikom
+        stavka.setDnevnik(fitnesDnevnikRepository.getReferenceById(dnevnikId)); // samo FK, dnevnik se ne ucitava
 
         StavkaDnevnika savedStavka = stavkaDnevnikaRepository.save(stavka);
         return stavkaDnevnikaMapper.toStavkaDnevnikaResponse(savedStavka);
     }
 
-   
-    private User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
+    // Drugi upit ide samo kada vlasnicki upit ne vrati red, da bi 404 i 403 ostali razdvojeni.
+    private RuntimeException notFoundOrForbidden(Long dnevnikId, String message) {
+        if (fitnesDnevnikRepository.existsById(dnevnikId)) {
+            return new UnauthorizedAccessException(message);
         }
-        String email = authentication.getName(); 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
+        return new ResourceNotFoundException("Dnevnik", "id", dnevnikId);
     }
+
 }
\ No newline at end of file
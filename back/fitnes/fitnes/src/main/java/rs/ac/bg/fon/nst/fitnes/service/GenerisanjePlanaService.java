@@ -0,0 +1,246 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisanjeStatusResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaGenerationRequest;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
+import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
+import rs.ac.bg.fon.nst.fitnes.exception.ServiceBusyException;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisaniRaspored;
+
+/**
+ * Asinhrono generisanje dugih planova. Raspored se pravi odmah u zahtevu (jedan upit i rad u
+ * memoriji), a upis ide na ogranicenom pool-u, po danaPoTransakciji dana u svakoj transakciji,
+ * pa ni veza sa bazom ni entiteti ne zive koliko i ceo plan. Napredak se cita preko statusa ili SSE.
+ */
+@Service
+public class GenerisanjePlanaService {
+
+    // Gornja granica i za asinhroni rad; godina plana je vise nego dovoljno
+    public static final int MAX_DANA = 366;
+
+    static final String CEKA = "CEKA";
+    static final String RADI = "RADI";
+    static final String ZAVRSEN = "ZAVRSEN";
+    static final String GRESKA = "GRESKA";
+
+    private static final Logger log = LoggerFactory.getLogger(GenerisanjePlanaService.class);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(10).toMillis();
+    private static final String GRESKA_PORUKA = "Generisanje plana nije uspelo; sačuvani su samo dani iz planIds.";
+
+    private final PlanTreningaService planTreningaService;
+    private final CurrentUserResolver currentUserResolver;
+    private final ThreadPoolExecutor executor;
+    private final int danaPoTransakciji;
+    private final Duration zadrzavanje;
+    private final Map<String, Posao> poslovi = new ConcurrentHashMap<>();
+
+    public GenerisanjePlanaService(PlanTreningaService planTreningaService,
+                                   CurrentUserResolver currentUserResolver,
+                                   @Value("${plan.generation.threads:2}") int threads,
+                                   @Value("${plan.generation.queue-capacity:16}") int queueCapacity,
+                                   @Value("${plan.generation.days-per-transaction:14}") int danaPoTransakciji,
+                                   @Value("${plan.generation.retention-minutes:60}") long zadrzavanjeMinuta) {
+        this.planTreningaService = planTreningaService;
+        this.currentUserResolver = currentUserResolver;
+        this.danaPoTransakciji = danaPoTransakciji;
+        this.zadrzavanje = Duration.ofMinutes(zadrzavanjeMinuta);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "plan-generation-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public GenerisanjeStatusResponse pokreni(PlanTreningaGenerationRequest request) {
+        if (request.getBrojDana() < 1 || request.getBrojDana() > MAX_DANA) {
+            throw new InvalidRequestException("Broj dana mora biti između 1 i " + MAX_DANA + ".");
+        }
+        Integer vezbacId = currentUserResolver.getUserId();
+        // Greske zahteva (npr. nema vezbi za grupe) vracaju se odmah, ne kroz status posla
+        GenerisaniRaspored raspored = planTreningaService.pripremiRaspored(request);
+
+        Posao posao = new Posao(UUID.randomUUID().toString(), vezbacId, raspored.dani().size(), raspored.seed());
+        poslovi.put(posao.id, posao);
+        try {
+            executor.execute(() -> izvrsi(posao, request.getNazivPlana(), raspored));
+        } catch (RejectedExecutionException e) {
+            poslovi.remove(posao.id);
+            throw new ServiceBusyException("Previše planova se trenutno generiše. Pokušajte ponovo za nekoliko sekundi.", 5);
+        }
+        return posao.status();
+    }
+
+    public GenerisanjeStatusResponse getStatus(String jobId) {
+        return posaoKorisnika(jobId).status();
+    }
+
+    /**
+     * SSE tok sa stanjem posla posle svakog sacuvanog dela; zatvara se kada posao zavrsi.
+     */
+    public SseEmitter pratiNapredak(String jobId) {
+        Posao posao = posaoKorisnika(jobId);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        // Callback-ovi stizu na nitima servlet kontejnera, pa se lista menja samo pod monitorom posla
+        emitter.onCompletion(() -> posao.ukloni(emitter));
+        emitter.onTimeout(() -> posao.ukloni(emitter));
+        emitter.onError(e -> posao.ukloni(emitter));
+        synchronized (posao) {
+            // pod istim monitorom kao i promene, pa klijent ne moze da propusti ili dobije stariji dogadjaj;
+            // emiter jos nije vracen kontroleru, pa Spring ovo slanje samo baferuje i ono ne blokira
+            if (posalji(emitter, posao.status()) && !posao.gotov()) {
+                posao.emiteri.add(emitter);
+            } else {
+                emitter.complete();
+            }
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${plan.generation.cleanup-interval-ms:300000}")
+    public void ukloniStarePoslove() {
+        Instant granica = Instant.now().minus(zadrzavanje);
+        poslovi.values().removeIf(posao -> posao.zavrsenPre(granica));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    void izvrsi(Posao posao, String nazivPlana, GenerisaniRaspored raspored) {
+        LocalDateTime pocetak = LocalDateTime.now();
+        try {
+            posao.promeni(RADI, List.of(), null);
+            for (int od = 0; od < posao.ukupnoDana; od += danaPoTransakciji) {
+                int doDana = Math.min(od + danaPoTransakciji, posao.ukupnoDana);
+                List<Long> ids = planTreningaService.sacuvajDeoRasporeda(posao.vezbacId, nazivPlana, pocetak,
+                        raspored.dani(), od, doDana);
+                posao.promeni(doDana == posao.ukupnoDana ? ZAVRSEN : RADI, ids, null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Generisanje plana {} nije uspelo posle {} dana", posao.id, posao.status().getSacuvanoDana(), e);
+            posao.promeni(GRESKA, List.of(), GRESKA_PORUKA);
+        } finally {
+            // Error (npr. OutOfMemoryError) prolazi pored catch-a; posao ipak mora da se zavrsi,
+            // inace ostaje u RADI, nikad se ne uklanja i SSE klijenti cekaju do isteka
+            if (!posao.gotov()) {
+                posao.promeni(GRESKA, List.of(), GRESKA_PORUKA);
+            }
+        }
+    }
+
+    private Posao posaoKorisnika(String jobId) {
+        Posao posao = poslovi.get(jobId);
+        // tudji posao se ne razlikuje od nepostojeceg
+        if (posao == null || !posao.vezbacId.equals(currentUserResolver.getUserId())) {
+            throw new ResourceNotFoundException("Posao generisanja", "id", jobId);
+        }
+        return posao;
+    }
+
+    private static boolean posalji(SseEmitter emitter, GenerisanjeStatusResponse status) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // klijent je zatvorio vezu; posao nastavlja bez njega
+            return false;
+        }
+    }
+
+    static final class Posao {
+        private final String id;
+        private final Integer vezbacId;
+        private final int ukupnoDana;
+        private final long seed;
+        private final List<Long> planIds = new ArrayList<>();
+        private final List<SseEmitter> emiteri = new ArrayList<>();
+        private String stanje = CEKA;
+        private String greska;
+        private Instant zavrsen;
+
+        Posao(String id, Integer vezbacId, int ukupnoDana, long seed) {
+            this.id = id;
+            this.vezbacId = vezbacId;
+            this.ukupnoDana = ukupnoDana;
+            this.seed = seed;
+        }
+
+        synchronized GenerisanjeStatusResponse status() {
+            return new GenerisanjeStatusResponse(id, stanje, ukupnoDana, planIds.size(), seed, List.copyOf(planIds), greska);
+        }
+
+        synchronized boolean gotov() {
+            return ZAVRSEN.equals(stanje) || GRESKA.equals(stanje);
+        }
+
+        synchronized boolean zavrsenPre(Instant granica) {
+            return gotov() && zavrsen.isBefore(granica);
+        }
+
+        synchronized void ukloni(SseEmitter emitter) {
+            emiteri.remove(emitter);
+        }
+
+        /**
+         * Menja stanje pod monitorom, a salje van njega: spor SSE klijent ne sme da zaustavi upis
+         * sledeceg dela ni getStatus. Poziva ga samo nit posla, pa dogadjaji ostaju u redosledu.
+         */
+        void promeni(String novoStanje, List<Long> noviPlanovi, String novaGreska) {
+            GenerisanjeStatusResponse status;
+            List<SseEmitter> primaoci;
+            boolean kraj;
+            synchronized (this) {
+                stanje = novoStanje;
+                planIds.addAll(noviPlanovi);
+                greska = novaGreska;
+                kraj = gotov();
+                if (kraj) {
+                    zavrsen = Instant.now();
+                }
+                status = status();
+                primaoci = List.copyOf(emiteri);
+                if (kraj) {
+                    emiteri.clear();
+                }
+            }
+            for (SseEmitter emitter : primaoci) {
+                if (!posalji(emitter, status)) {
+                    ukloni(emitter);
+                } else if (kraj) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+}
@@ -6,53 +6,63 @@ package rs.ac.bg.fon.nst.fitnes.service;
 
 
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
-import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.domain.NazivNormalizer;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.GrupaVezbaRed;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
 import rs.ac.bg.fon.nst.fitnes.exception.DuplicateEntryException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.GrupaMisicaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.GrupaMisicaSacuvanaEvent;
 import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
 
 @Service
 public class GrupaMisicaService {
 
     private final GrupaMisicaRepository grupaMisicaRepository;
+    private final VezbaRepository vezbaRepository;
     private final GrupaMisicaMapper grupaMisicaMapper;
     private final FileStorageService fileStorageService;
-    private final UserRepository userRepository; // Potrebno za proveru uloge
+    private final CurrentUserResolver currentUserResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     public GrupaMisicaService(GrupaMisicaRepository grupaMisicaRepository,
+                              VezbaRepository vezbaRepository,
                               GrupaMisicaMapper grupaMisicaMapper,
                               FileStorageService fileStorageService,
-                              UserRepository userRepository) {
+                              CurrentUserResolver currentUserResolver,
+                              ApplicationEventPublisher eventPublisher) {
         this.grupaMisicaRepository = grupaMisicaRepository;
+        this.vezbaRepository = vezbaRepository;
         this.grupaMisicaMapper = grupaMisicaMapper;
         this.fileStorageService = fileStorageService;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.eventPublisher = eventPublisher;
     }
 
    
     @Transactional
     public GrupaMisicaResponse createGrupaMisica(GrupaMisicaRequest request, MultipartFile slika) {
-        User currentUser = getAuthenticatedUser();
+        currentUserResolver.getUserId(); // samo provera da je korisnik prijavljen
       
-        Optional<GrupaMisica> existingGrupa = grupaMisicaRepository.findAll().stream() 
-                .filter(g -> g.getNaziv().equalsIgnoreCase(request.getNaziv()))
-                .findFirst();
-        if (existingGrupa.isPresent()) {
+        if (grupaMisicaRepository.existsByNormalizovanNaziv(NazivNormalizer.normalize(request.getNaziv()))) {
             throw new DuplicateEntryException("naziv", request.getNaziv());
         }
 
@@ -63,42 +73,52 @@ public class GrupaMisicaService {
             grupaMisica.setSlika(fileName);
         }
 
-        GrupaMisica savedGrupa = grupaMisicaRepository.save(grupaMisica);
+        GrupaMisica savedGrupa;
+        try {
+            savedGrupa = grupaMisicaRepository.save(grupaMisica);
+        } catch (DataIntegrityViolationException e) {
+            // Istovremeni unos istog naziva; jedinstveni indeks je konacna provera
+            if (grupaMisica.getSlika() != null) {
+                fileStorageService.deleteFile(grupaMisica.getSlika());
+            }
+            throw new DuplicateEntryException("naziv", request.getNaziv());
+        }
+        eventPublisher.publishEvent(new GrupaMisicaSacuvanaEvent(savedGrupa.getId(), savedGrupa.getNaziv()));
         return grupaMisicaMapper.toGrupaMisicaResponse(savedGrupa);
     }
 
    
+    // Cita ga samo KatalogSnapshot, koji cuva gotov JSON liste, pa se lista ne kesira ovde
     @Transactional(readOnly = true)
     public List<GrupaMisicaResponse> getAllGrupeMisica() {
-        List<GrupaMisica> grupeMisica = grupaMisicaRepository.findAll();
-        return grupaMisicaMapper.toGrupaMisicaResponseList(grupeMisica);
+        List<GrupaMisica> grupeMisica = grupaMisicaRepository.findAll(Sort.by("id"));
+
+        // Vezbe svih grupa jednim upitom projekcije, bez TEXT kolona
+        Map<Long, List<VezbaSummary>> vezbePoGrupi = vezbaRepository.findAllSummaries().stream()
+                .collect(Collectors.groupingBy(VezbaSummary::getGrupaMisicaId));
+
+        return grupeMisica.stream()
+                .map(grupa -> grupaMisicaMapper.toGrupaMisicaResponse(grupa,
+                        vezbePoGrupi.getOrDefault(grupa.getId(), List.of())))
+                .toList();
     }
 
 
     @Transactional(readOnly = true)
     public GrupaMisicaResponse getGrupaMisicaById(Long id, Optional<Long> kategorijaId) {
-        GrupaMisica grupaMisica = grupaMisicaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Grupa mišića", "id", id));
-
-        if (kategorijaId.isPresent()) {
-            grupaMisica.setVezbe(
-                    grupaMisica.getVezbe().stream()
-                            .filter(v -> v.getKategorija().getId().equals(kategorijaId.get()))
-                            .collect(Collectors.toList())
-            );
+        // Grupa i vezbe (sa kategorijama) jednim upitom; filter po kategoriji radi baza
+        List<GrupaVezbaRed> redovi = kategorijaId.isPresent()
+                ? grupaMisicaRepository.findSaVezbamaKategorije(id, kategorijaId.get())
+                : grupaMisicaRepository.findSaVezbama(id);
+        if (redovi.isEmpty()) {
+            throw new ResourceNotFoundException("Grupa mišića", "id", id);
         }
 
-        return grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica);
+        List<VezbaSummary> vezbe = redovi.stream()
+                .map(GrupaVezbaRed::vezba)
+                .filter(Objects::nonNull)
+                .toList();
+        return grupaMisicaMapper.toGrupaMisicaResponse(redovi.get(0).grupa(), vezbe);
     }
 
-  
-    private User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
-        }
-        String email = authentication.getName(); 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
-    }
 }
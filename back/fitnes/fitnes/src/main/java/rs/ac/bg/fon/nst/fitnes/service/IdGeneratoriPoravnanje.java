@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import rs.ac.bg.fon.nst.fitnes.domain.IdGeneratori;
+
+/**
+ * Tabele koje su ranije koristile IDENTITY vec imaju redove, pa se pri pokretanju vrednost svakog
+ * generatora podize iznad najveceg postojeceg id-a. Radi pre nego sto aplikacija primi zahteve
+ * (posle EntityManagerFactory, pa je sema vec azurirana); kada je generator ispred, ne menja nista.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratoriPoravnanje {
+
+    private static final String UPDATE = "update " + IdGeneratori.TABELA + " set " + IdGeneratori.KOLONA_VREDNOST
+            + " = ? where " + IdGeneratori.KOLONA_NAZIV + " = ? and " + IdGeneratori.KOLONA_VREDNOST + " < ?";
+    private static final String INSERT = "insert into " + IdGeneratori.TABELA + " (" + IdGeneratori.KOLONA_NAZIV
+            + ", " + IdGeneratori.KOLONA_VREDNOST + ") values (?, ?)";
+    private static final String POSTOJI = "select count(*) from " + IdGeneratori.TABELA
+            + " where " + IdGeneratori.KOLONA_NAZIV + " = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratoriPoravnanje(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void poravnaj() {
+        for (IdGeneratori.Generator generator : IdGeneratori.SVI) {
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + generator.tabela(), Long.class);
+            // Hibernate iz vrednosti V uzima blok (V - velicinaBloka, V], pa blok mora da pocne posle maxId
+            long najmanje = maxId + generator.velicinaBloka();
+            if (jdbcTemplate.update(UPDATE, najmanje, generator.tabela(), najmanje) == 0) {
+                dodajAkoNedostaje(generator.tabela(), najmanje);
+            }
+        }
+    }
+
+    private void dodajAkoNedostaje(String naziv, long vrednost) {
+        Integer broj = jdbcTemplate.queryForObject(POSTOJI, Integer.class, naziv);
+        if (broj != null && broj > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT, naziv, vrednost);
+        } catch (DuplicateKeyException e) {
+            // druga instanca je istovremeno dodala red; ponovo podizemo vrednost ako je potrebno
+            jdbcTemplate.update(UPDATE, vrednost, naziv, vrednost);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
+import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+/**
+ * Pri pokretanju popunjava normalizovan_naziv za redove upisane pre uvodjenja te kolone.
+ * Kada su svi redovi popunjeni, svaki upit vraca praznu listu.
+ */
+@Component
+public class NormalizovanNazivBackfill implements ApplicationRunner {
+
+    private final KategorijaVezbeRepository kategorijaVezbeRepository;
+    private final GrupaMisicaRepository grupaMisicaRepository;
+    private final VezbaRepository vezbaRepository;
+
+    public NormalizovanNazivBackfill(KategorijaVezbeRepository kategorijaVezbeRepository,
+                                     GrupaMisicaRepository grupaMisicaRepository,
+                                     VezbaRepository vezbaRepository) {
+        this.kategorijaVezbeRepository = kategorijaVezbeRepository;
+        this.grupaMisicaRepository = grupaMisicaRepository;
+        this.vezbaRepository = vezbaRepository;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        // setNaziv ponovo racuna kljuc, a dirty checking ga upisuje na kraju transakcije
+        for (KategorijaVezbe kategorija : kategorijaVezbeRepository.findByNormalizovanNazivIsNull()) {
+            kategorija.setNaziv(kategorija.getNaziv());
+        }
+        for (GrupaMisica grupa : grupaMisicaRepository.findByNormalizovanNazivIsNull()) {
+            grupa.setNaziv(grupa.getNaziv());
+        }
+        for (Vezba vezba : vezbaRepository.findByNormalizovanNazivIsNull()) {
+            vezba.setNaziv(vezba.getNaziv());
+        }
+    }
+}
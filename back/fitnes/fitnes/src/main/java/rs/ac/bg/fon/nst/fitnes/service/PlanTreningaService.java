@@ -10,24 +10,34 @@ package rs.ac.bg.fon.nst.fitnes.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import rs.ac.bg.fon.nst.fitnes.domain.NazivNormalizer;
 import rs.ac.bg.fon.nst.fitnes.domain.PlanTreninga;
 import rs.ac.bg.fon.nst.fitnes.domain.PlanVezbe;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisaniPlanResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaGenerationRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.PlanVezbeRequestItem;
+import rs.ac.bg.fon.nst.fitnes.dto.PlanVezbeResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.PlanTreningaMapper;
@@ -36,61 +46,82 @@ import rs.ac.bg.fon.nst.fitnes.repo.PlanTreningaRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.PlanVezbeRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.plan.CiljTreninga;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GeneratorZahtev;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisanaStavka;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisaniRaspored;
+import rs.ac.bg.fon.nst.fitnes.service.plan.IndeksVezbi;
+import rs.ac.bg.fon.nst.fitnes.service.plan.PlanGenerator;
+import rs.ac.bg.fon.nst.fitnes.service.plan.VezbaKandidat;
 
 @Service
 public class PlanTreningaService {
 
+    // Duzi planovi idu kroz GenerisanjePlanaService, u delovima i van zahteva
+    public static final int MAX_DANA_SINHRONO = 31;
+
+    // Number.MAX_SAFE_INTEGER: veci seed JavaScript klijent zaokruzi i ne moze da ga vrati isti
+    static final long MAX_SEED = (1L << 53) - 1;
+
     private final PlanTreningaRepository planTreningaRepository;
     private final PlanVezbeRepository planVezbeRepository;
     private final VezbaRepository vezbaRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final PlanTreningaMapper planTreningaMapper;
     private final PlanVezbeMapper planVezbeMapper;
+    private final PlanGenerator planGenerator;
+    private final UserRepository userRepository;
 
     public PlanTreningaService(PlanTreningaRepository planTreningaRepository,
                                PlanVezbeRepository planVezbeRepository,
                                VezbaRepository vezbaRepository,
-                               UserRepository userRepository,
+                               CurrentUserResolver currentUserResolver,
                                PlanTreningaMapper planTreningaMapper,
-                               PlanVezbeMapper planVezbeMapper) {
+                               PlanVezbeMapper planVezbeMapper,
+                               PlanGenerator planGenerator,
+                               UserRepository userRepository) {
         this.planTreningaRepository = planTreningaRepository;
         this.planVezbeRepository = planVezbeRepository;
         this.vezbaRepository = vezbaRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
         this.planTreningaMapper = planTreningaMapper;
         this.planVezbeMapper = planVezbeMapper;
+        this.planGenerator = planGenerator;
+        this.userRepository = userRepository;
     }
 
    
     @Transactional(readOnly = true)
     public Page<PlanTreningaResponse> getAllPlanoviTreninga(int page, int size) {
-        User currentUser = getAuthenticatedUser();
+        User currentUser = currentUserResolver.getUserReference();
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("datum").descending());
-        return planTreningaRepository.findByVezbac(currentUser, pageable)
-                .map(planTreningaMapper::toPlanTreningaResponse);
+        Page<PlanTreninga> planovi = planTreningaRepository.findByVezbac(currentUser, pageable);
+        Page<PlanTreningaResponse> responses = planovi.map(planTreningaMapper::toPlanTreningaResponse);
+        popuniVezbe(planovi.getContent(), responses.getContent());
+        return responses;
     }
 
   
     @Transactional(readOnly = true)
     public PlanTreningaResponse getPlanTreningaById(Long id) {
-        User currentUser = getAuthenticatedUser();
-        
-
-        PlanTreninga planTreninga = planTreningaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Plan treninga", "id", id));
+        Integer currentUserId = currentUserResolver.getUserId();
 
-        if (planTreninga.getVezbac().getId() != currentUser.getId()) {
-            throw new UnauthorizedAccessException("Nemate dozvolu za pregled ovog plana treninga.");
-        }
+        PlanTreninga planTreninga = planTreningaRepository.findByIdAndVezbacId(id, currentUserId)
+                .orElseThrow(() -> planTreningaRepository.existsById(id)
+                        ? new UnauthorizedAccessException("Nemate dozvolu za pregled ovog plana treninga.")
+                        : new ResourceNotFoundException("Plan treninga", "id", id));
 
-        return planTreningaMapper.toPlanTreningaResponse(planTreninga);
+        PlanTreningaResponse response = planTreningaMapper.toPlanTreningaResponse(planTreninga);
+        popuniVezbe(List.of(planTreninga), List.of(response));
+        return response;
     }
 
    
     @Transactional
     public PlanTreningaResponse createPlanTreninga(PlanTreningaRequest request) {
-        User currentUser = getAuthenticatedUser();
+        User currentUser = currentUserResolver.getUserReference();
       
 
         PlanTreninga planTreninga = planTreningaMapper.toPlanTreninga(request);
@@ -113,74 +144,131 @@ public class PlanTreningaService {
         planTreninga.setPlanoviVezbi(planoviVezbi); 
 
         PlanTreninga savedPlan = planTreningaRepository.save(planTreninga);
-        return planTreningaMapper.toPlanTreningaResponse(savedPlan);
+        PlanTreningaResponse response = planTreningaMapper.toPlanTreningaResponse(savedPlan);
+        popuniVezbe(List.of(savedPlan), List.of(response));
+        return response;
     }
 
-   
-    private User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
-        }
-        String email = authentication.getName(); 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
-    }
     
     @Transactional
-public List<PlanTreningaResponse> generatePersonalizedPlan(PlanTreningaGenerationRequest request) {
+public GenerisaniPlanResponse generatePersonalizedPlan(PlanTreningaGenerationRequest request) {
+    if (request.getBrojDana() < 1) {
+        throw new InvalidRequestException("Broj dana mora biti najmanje 1.");
+    }
+    if (request.getBrojDana() > MAX_DANA_SINHRONO) {
+        throw new InvalidRequestException("Plan duži od " + MAX_DANA_SINHRONO
+                + " dana generiše se asinhrono, preko /api/plan-treninga/generatedPlan/jobs.");
+    }
   
-    User currentUser = getAuthenticatedUser();
+    User currentUser = currentUserResolver.getUserReference();
 
+    GenerisaniRaspored raspored = pripremiRaspored(request);
 
-    List<Vezba> sveVezbe = new ArrayList<>();
-    for (String grupa : request.getGrupeMisica()) {
-        sveVezbe.addAll(vezbaRepository.findByGrupaMisicaNazivIgnoreCase(grupa));
-    }
+    List<PlanTreninga> kreiraniPlanovi = napraviPlanove(currentUser, request.getNazivPlana(), LocalDateTime.now(),
+            raspored.dani(), 0, raspored.dani().size());
 
-   
-    if (sveVezbe.isEmpty()) {
-        throw new ResourceNotFoundException("Nijedna vežba nije pronađena za izabrane mišićne grupe.");
-    }
+    
+    List<PlanTreninga> savedPlans = planTreningaRepository.saveAll(kreiraniPlanovi);
+    List<PlanTreningaResponse> responses = planTreningaMapper.toPlanTreningaResponseList(savedPlans);
+    popuniVezbe(savedPlans, responses);
+    return new GenerisaniPlanResponse(raspored.seed(), responses);
+}
+
+    /**
+     * Kandidati iz trazenih grupa jednim upitom i raspored vezbi po danima iz generatora.
+     * Ne pise u bazu; rezultat cuva generatePersonalizedPlan ili asinhroni posao.
+     */
+    @Transactional(readOnly = true)
+    public GenerisaniRaspored pripremiRaspored(PlanTreningaGenerationRequest request) {
+        // Ista grupa navedena vise puta (i sa drugacijim pisanjem) trazi se samo jednom
+        Set<String> nazivi = new LinkedHashSet<>();
+        for (String grupa : request.getGrupeMisica()) {
+            nazivi.add(NazivNormalizer.normalize(grupa));
+        }
+        List<VezbaKandidat> sveVezbe = nazivi.isEmpty()
+                ? List.of()
+                : vezbaRepository.findKandidatiByGrupaMisicaNormalizovanNazivIn(nazivi);
 
-    List<PlanTreninga> kreiraniPlanovi = new ArrayList<>();
-    int vezbePoDanu = 7;
-    LocalDateTime danasnjiDatum = LocalDateTime.now();
+        if (sveVezbe.isEmpty()) {
+            throw new ResourceNotFoundException("Nijedna vežba nije pronađena za izabrane mišićne grupe.");
+        }
 
-  
-    for (int dan = 0; dan < request.getBrojDana(); dan++) {
-      
-        PlanTreninga noviPlan = new PlanTreninga();
-        noviPlan.setNaziv(request.getNazivPlana() + " - Dan " + (dan + 1));
-        noviPlan.setVezbac(currentUser);
-        noviPlan.setPlanoviVezbi(new ArrayList<>());
-        noviPlan.setDatum(danasnjiDatum.plusDays(dan));
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong(MAX_SEED + 1);
+        // Izbor vezbi radi generator nad indeksom u memoriji; baza se vise ne koristi do upisa
+        List<List<GenerisanaStavka>> dani = planGenerator.generisi(new GeneratorZahtev(
+                IndeksVezbi.of(sveVezbe), CiljTreninga.from(request.getCilj()), request.getBrojDana(), seed));
+        return new GenerisaniRaspored(seed, dani);
+    }
 
-       
-        Collections.shuffle(sveVezbe);
+    /**
+     * Cuva dane [od, doDana) rasporeda u sopstvenoj transakciji i vraca id-eve planova.
+     * Asinhrono generisanje ovako pise plan u delovima, bez jedne duge transakcije.
+     */
+    @Transactional
+    public List<Long> sacuvajDeoRasporeda(Integer vezbacId, String nazivPlana, LocalDateTime pocetak,
+                                          List<List<GenerisanaStavka>> dani, int od, int doDana) {
+        List<PlanTreninga> planovi = napraviPlanove(userRepository.getReferenceById(vezbacId), nazivPlana, pocetak,
+                dani, od, doDana);
+        return planTreningaRepository.saveAll(planovi).stream().map(PlanTreninga::getId).toList();
+    }
 
-       
-        List<Vezba> odabraneVezbeZaDan = sveVezbe.subList(0, Math.min(vezbePoDanu, sveVezbe.size()));
+    private List<PlanTreninga> napraviPlanove(User vezbac, String nazivPlana, LocalDateTime pocetak,
+                                              List<List<GenerisanaStavka>> dani, int od, int doDana) {
+        List<PlanTreninga> kreiraniPlanovi = new ArrayList<>(doDana - od);
+        for (int dan = od; dan < doDana; dan++) {
+            PlanTreninga noviPlan = new PlanTreninga();
+            noviPlan.setNaziv(nazivPlana + " - Dan " + (dan + 1));
+            noviPlan.setVezbac(vezbac);
+            noviPlan.setPlanoviVezbi(new ArrayList<>());
+            noviPlan.setDatum(pocetak.plusDays(dan));
+
+            for (GenerisanaStavka stavka : dani.get(dan)) {
+                PlanVezbe planVezbe = new PlanVezbe();
+                planVezbe.setPlanTreninga(noviPlan);
+                planVezbe.setVezba(vezbaRepository.getReferenceById(stavka.vezbaId())); // samo FK, vezba se ne ucitava
+                planVezbe.setBrojSerija(stavka.brojSerija());
+                planVezbe.setBrojPonavljanja(stavka.brojPonavljanja());
+                planVezbe.setDatum(noviPlan.getDatum().toLocalDate());
+                noviPlan.getPlanoviVezbi().add(planVezbe);
+            }
+            kreiraniPlanovi.add(noviPlan);
+        }
+        return kreiraniPlanovi;
+    }
 
-        
-        for (Vezba vezba : odabraneVezbeZaDan) {
-            PlanVezbe planVezbe = new PlanVezbe();
-            planVezbe.setPlanTreninga(noviPlan);
-            planVezbe.setVezba(vezba);
-            planVezbe.setBrojSerija(vezba.getPreporuceniBrojSerija());
-            planVezbe.setBrojPonavljanja(vezba.getPreporuceniBrojPonavljanja());
-            planVezbe.setDatum(noviPlan.getDatum().toLocalDate());
-            noviPlan.getPlanoviVezbi().add(planVezbe);
+    /**
+     * Stavke odgovora dobijaju vezbe iz jedne VezbaSummary projekcije za sve planove,
+     * umesto da mapper ucitava cele vezbe sa TEXT kolonama. Stavke se uparuju po id-u.
+     */
+    private void popuniVezbe(List<PlanTreninga> planovi, List<PlanTreningaResponse> responses) {
+        Map<Long, Long> vezbaPoStavci = new HashMap<>();
+        Set<Long> vezbaIds = new HashSet<>();
+        for (PlanTreninga plan : planovi) {
+            if (plan.getPlanoviVezbi() == null) {
+                continue;
+            }
+            for (PlanVezbe stavka : plan.getPlanoviVezbi()) {
+                // getId() na lenjoj referenci ne ucitava vezbu
+                Long vezbaId = stavka.getVezba().getId();
+                vezbaPoStavci.put(stavka.getId(), vezbaId);
+                vezbaIds.add(vezbaId);
+            }
+        }
+        if (vezbaIds.isEmpty()) {
+            return;
         }
 
-       
-        kreiraniPlanovi.add(noviPlan);
+        Map<Long, VezbaSummary> vezbe = vezbaRepository.findSummariesByIdIn(vezbaIds).stream()
+                .collect(Collectors.toMap(VezbaSummary::getId, Function.identity()));
+        for (PlanTreningaResponse response : responses) {
+            if (response.getPlanoviVezbi() == null) {
+                continue;
+            }
+            for (PlanVezbeResponse stavka : response.getPlanoviVezbi()) {
+                stavka.setVezba(vezbe.get(vezbaPoStavci.get(stavka.getId())));
+            }
+        }
     }
-
-    
-    List<PlanTreninga> savedPlans = planTreningaRepository.saveAll(kreiraniPlanovi);
-    return planTreningaMapper.toPlanTreningaResponseList(savedPlans);
-}
    
 
 }
@@ -5,23 +5,25 @@
 package rs.ac.bg.fon.nst.fitnes.service;
 
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.dto.FitnesDnevnikResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.UserResponse;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
-import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.FitnesDnevnikMapper;
 import rs.ac.bg.fon.nst.fitnes.mapper.UserMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.FitnesDnevnikRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.security.KorisnikObrisanEvent;
+import rs.ac.bg.fon.nst.fitnes.security.TokenRevocationStore;
+import rs.ac.bg.fon.nst.fitnes.service.auth.RefreshTokenService;
 
 @Service
 public class UserService {
@@ -30,19 +32,29 @@ public class UserService {
     private final FitnesDnevnikRepository fitnesDnevnikRepository;
     private final UserMapper userMapper;
     private final FitnesDnevnikMapper fitnesDnevnikMapper;
+    private final CurrentUserResolver currentUserResolver;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepository userRepository, FitnesDnevnikRepository fitnesDnevnikRepository,
-                       UserMapper userMapper, FitnesDnevnikMapper fitnesDnevnikMapper) {
+                       UserMapper userMapper, FitnesDnevnikMapper fitnesDnevnikMapper,
+                       CurrentUserResolver currentUserResolver, TokenRevocationStore tokenRevocationStore,
+                       RefreshTokenService refreshTokenService, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.fitnesDnevnikRepository = fitnesDnevnikRepository;
         this.userMapper = userMapper;
         this.fitnesDnevnikMapper = fitnesDnevnikMapper;
+        this.currentUserResolver = currentUserResolver;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenService = refreshTokenService;
+        this.eventPublisher = eventPublisher;
     }
 
   
     @Transactional(readOnly = true)
     public Page<FitnesDnevnikResponse> getLoggedInUserDnevnici(int page, int size) {
-        User currentUser = getAuthenticatedUser();
+        User currentUser = currentUserResolver.getUserReference();
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         return fitnesDnevnikRepository.findByVezbac(currentUser, pageable)
                 .map(fitnesDnevnikMapper::toFitnesDnevnikResponse);
@@ -64,6 +76,10 @@ public class UserService {
 
       
         userRepository.delete(trainer);
+        // kes statusa se prazni tek posle commit-a
+        eventPublisher.publishEvent(new KorisnikObrisanEvent(trainer.getId()));
+        tokenRevocationStore.revokeAllForUser(trainer.getId());
+        refreshTokenService.revokeAllForUser(trainer.getId());
     }
 
   
@@ -84,16 +100,10 @@ public class UserService {
 
         
         userRepository.delete(vezbac);
+        // kes statusa se prazni tek posle commit-a
+        eventPublisher.publishEvent(new KorisnikObrisanEvent(vezbac.getId()));
+        tokenRevocationStore.revokeAllForUser(vezbac.getId());
+        refreshTokenService.revokeAllForUser(vezbac.getId());
     }
 
-  
-    private User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
-        }
-        String email = authentication.getName(); // Email je username
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
-    }
 }
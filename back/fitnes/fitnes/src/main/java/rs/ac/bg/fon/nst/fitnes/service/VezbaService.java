@@ -6,60 +6,145 @@ package rs.ac.bg.fon.nst.fitnes.service;
 
 
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import rs.ac.bg.fon.nst.fitnes.config.CacheConfig;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
 import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.NazivNormalizer;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.FaseteResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.PredlogResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaPageResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.VezbaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaSpecifications;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogFacetIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSuggestIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaDokument;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSacuvanaEvent;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSearchIndex;
 import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
 
 @Service
 public class VezbaService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    private static final Sort KEYSET_SORT = Sort.by("normalizovanNaziv", "id");
+
     private final VezbaRepository vezbaRepository;
     private final GrupaMisicaRepository grupaMisicaRepository;
     private final KategorijaVezbeRepository kategorijaVezbeRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final VezbaMapper vezbaMapper;
     private final FileStorageService fileStorageService;
+    private final VezbaSearchIndex vezbaSearchIndex;
+    private final KatalogSuggestIndex katalogSuggestIndex;
+    private final KatalogFacetIndex katalogFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public VezbaService(VezbaRepository vezbaRepository,
                         GrupaMisicaRepository grupaMisicaRepository,
                         KategorijaVezbeRepository kategorijaVezbeRepository,
-                        UserRepository userRepository,
+                        CurrentUserResolver currentUserResolver,
                         VezbaMapper vezbaMapper,
-                        FileStorageService fileStorageService) {
+                        FileStorageService fileStorageService,
+                        VezbaSearchIndex vezbaSearchIndex,
+                        KatalogSuggestIndex katalogSuggestIndex,
+                        KatalogFacetIndex katalogFacetIndex,
+                        ApplicationEventPublisher eventPublisher) {
         this.vezbaRepository = vezbaRepository;
         this.grupaMisicaRepository = grupaMisicaRepository;
         this.kategorijaVezbeRepository = kategorijaVezbeRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
         this.vezbaMapper = vezbaMapper;
         this.fileStorageService = fileStorageService;
+        this.vezbaSearchIndex = vezbaSearchIndex;
+        this.katalogSuggestIndex = katalogSuggestIndex;
+        this.katalogFacetIndex = katalogFacetIndex;
+        this.eventPublisher = eventPublisher;
     }
 
    
+    /**
+     * Keyset stranica vezbi u redosledu (normalizovan_naziv, id). Kursor je pozicija poslednje
+     * vracene vezbe, pa svaka stranica kosta isto bez obzira na to koliko je daleko.
+     */
     @Transactional(readOnly = true)
-    public List<VezbaResponse> getAllVezbe() {
-        User currentUser = getAuthenticatedUser();
-        List<Vezba> vezbe = vezbaRepository.findAll();
-        return vezbaMapper.toVezbaResponseList(vezbe);
+    public VezbaPageResponse getVezbe(Long grupaMisicaId, Long kategorijaId, Integer trenerId,
+                                      String naziv, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<Specification<Vezba>> filteri = new ArrayList<>();
+        if (grupaMisicaId != null) {
+            filteri.add(VezbaSpecifications.uGrupi(grupaMisicaId));
+        }
+        if (kategorijaId != null) {
+            filteri.add(VezbaSpecifications.uKategoriji(kategorijaId));
+        }
+        if (trenerId != null) {
+            filteri.add(VezbaSpecifications.odTrenera(trenerId));
+        }
+        String prefiks = NazivNormalizer.normalize(naziv);
+        if (prefiks != null && !prefiks.isEmpty()) {
+            filteri.add(VezbaSpecifications.nazivPocinjeSa(prefiks));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor pozicija = Cursor.decode(cursor);
+            filteri.add(VezbaSpecifications.posle(pozicija.normalizovanNaziv(), pozicija.id()));
+        }
+
+        // jedan red vise od stranice govori da li postoji sledeca
+        List<VezbaSummary> vezbe = vezbaRepository.findSummaries(Specification.allOf(filteri), KEYSET_SORT, limit + 1);
+
+        boolean hasNext = vezbe.size() > limit;
+        if (hasNext) {
+            vezbe = vezbe.subList(0, limit);
+        }
+        String nextCursor = hasNext ? Cursor.encode(vezbe.get(vezbe.size() - 1)) : null;
+        return new VezbaPageResponse(vezbe, nextCursor, hasNext);
+    }
+
+
+    // Pretraga iz indeksa u memoriji; baza se ne koristi
+    public List<VezbaSummary> searchVezbe(String q, int limit) {
+        return vezbaSearchIndex.search(q, Math.min(limit, MAX_PAGE_SIZE)).stream()
+                .map(VezbaDokument::toSummary)
+                .toList();
+    }
+
+    // Dopune naziva vezbi i grupa misica dok korisnik kuca
+    public List<PredlogResponse> suggest(String q, int limit) {
+        return katalogSuggestIndex.suggest(q, limit);
+    }
+
+    // Brojevi za bocni filter kataloga, iz brojaca u memoriji
+    public FaseteResponse getFasete(Integer trenerId) {
+        return katalogFacetIndex.fasete(trenerId);
     }
 
    
+    @Cacheable(cacheNames = CacheConfig.VEZBE, key = "#id")
     @Transactional(readOnly = true)
     public VezbaResponse getVezbaById(Long id) {
         Vezba vezba = vezbaRepository.findById(id)
@@ -70,7 +155,7 @@ public class VezbaService {
     
     @Transactional
     public VezbaResponse createVezba(VezbaRequest request, MultipartFile slika, MultipartFile video) {
-        User currentUser = getAuthenticatedUser();
+        User currentUser = currentUserResolver.getUserReference();
         GrupaMisica grupaMisica = grupaMisicaRepository.findById(request.getGrupaMisicaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Grupa mišića", "id", request.getGrupaMisicaId()));
         KategorijaVezbe kategorijaVezbe = kategorijaVezbeRepository.findById(request.getKategorijaId())
@@ -91,20 +176,21 @@ public class VezbaService {
         }
 
         Vezba savedVezba = vezbaRepository.save(vezba);
+        eventPublisher.publishEvent(new VezbaSacuvanaEvent(VezbaDokument.from(savedVezba)));
         return vezbaMapper.toVezbaResponse(savedVezba);
     }
 
  
+    @CacheEvict(cacheNames = CacheConfig.VEZBE, key = "#id")
     @Transactional
     public VezbaResponse updateVezba(Long id, VezbaRequest request, MultipartFile slika, MultipartFile video) {
+        if (vezbaRepository.existsByIdAndTrenerIdNot(id, currentUserResolver.getUserId())) {
+            throw new UnauthorizedAccessException("Nemate dozvolu za ažuriranje ove vežbe.");
+        }
+
         Vezba vezba = vezbaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vežba", "id", id));
 
-         User currentUser = getAuthenticatedUser();
-         if(vezba.getTrener() != null && vezba.getTrener().getId() != currentUser.getId()) { 
-             throw new UnauthorizedAccessException("Nemate dozvolu za ažuriranje ove vežbe.");
-         }
-
 
         GrupaMisica grupaMisica = grupaMisicaRepository.findById(request.getGrupaMisicaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Grupa mišića", "id", request.getGrupaMisicaId()));
@@ -136,18 +222,28 @@ public class VezbaService {
         }
 
         Vezba updatedVezba = vezbaRepository.save(vezba);
+        eventPublisher.publishEvent(new VezbaSacuvanaEvent(VezbaDokument.from(updatedVezba)));
         return vezbaMapper.toVezbaResponse(updatedVezba);
     }
 
-    
-    private User getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new UnauthorizedAccessException("Korisnik nije autentifikovan.");
+    // Neproziran kursor: base64url("normalizovan_naziv\nid"); normalizovan naziv ne sadrzi prelom reda
+    record Cursor(String normalizovanNaziv, Long id) {
+
+        // normalizovan_naziv se uvek izvodi iz naziva, pa ga projekcija ne mora citati
+        static String encode(VezbaSummary vezba) {
+            String raw = NazivNormalizer.normalize(vezba.getNaziv()) + "\n" + vezba.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('\n');
+                return new Cursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                throw new InvalidRequestException("Neispravan kursor stranice.");
+            }
         }
-        String email = authentication.getName(); 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik sa emailom " + email + " nije pronađen."));
     }
 }
 
@@ -14,15 +14,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ac.bg.fon.nst.fitnes.domain.Role;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.dto.AuthResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.LoginRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.RegisterRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.UserResponse;
 import rs.ac.bg.fon.nst.fitnes.exception.DuplicateEntryException;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidTokenException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.mapper.UserMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.RolesRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.JwtAuthenticationDetails;
 import rs.ac.bg.fon.nst.fitnes.security.JwtTokenProvider;
+import rs.ac.bg.fon.nst.fitnes.security.TokenRevocationStore;
+import rs.ac.bg.fon.nst.fitnes.security.UserPrincipal;
 
 @Service
 public class AuthService {
@@ -32,15 +37,20 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserMapper userMapper;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthService(UserRepository userRepository, 
                        PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager,
-                       JwtTokenProvider jwtTokenProvider, UserMapper userMapper) {
+                       JwtTokenProvider jwtTokenProvider, UserMapper userMapper,
+                       TokenRevocationStore tokenRevocationStore, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
         this.userMapper = userMapper;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional
@@ -60,26 +70,76 @@ public class AuthService {
         return userMapper.toUserResponse(savedUser);
     }
 
-    public String loginUser(LoginRequest request) {
+    /**
+     * Prijava iz jednog citanja korisnika: odgovor se pravi od entiteta koji je ucitao
+     * CustomUserDetailsService, bez ponovnog findByEmail. Bez transakcije, da BCrypt
+     * provera ne drzi konekciju ka bazi.
+     */
+    public AuthResponse loginUser(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        return jwtTokenProvider.generateToken(authentication);
+        String accessToken = jwtTokenProvider.generateToken(authentication);
+        User user = authenticatedUser(authentication);
+        UserResponse userResponse = userMapper.toUserResponse(user);
+        return new AuthResponse(
+                "Uspešna prijava!",
+                true,
+                userResponse,
+                accessToken,
+                "Bearer",
+                userResponse.getRole().getRole(),
+                refreshTokenService.issue(user.getId())
+        );
+    }
+
+    private User authenticatedUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getUser() != null) {
+            return principal.getUser();
+        }
+        String email = authentication.getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Korisnik", "email", email));
+    }
+
+    /**
+     * Menja refresh token za novi par tokena. Korisnik se ucitava samo ovde, ne na svakom zahtevu.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public AuthResponse refreshTokens(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new InvalidTokenException("Korisnik više ne postoji."));
+
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        String accessToken = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        UserResponse userResponse = userMapper.toUserResponse(user);
+        return new AuthResponse(
+                "Token je osvežen.",
+                true,
+                userResponse,
+                accessToken,
+                "Bearer",
+                userResponse.getRole().getRole(),
+                rotation.refreshToken()
+        );
     }
 
     @Transactional
-    public void logoutUser() {
+    public void logoutUser(String refreshToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+            // Token ostaje nevazeci do svog isteka
+            tokenRevocationStore.revokeToken(details.getTokenId(), details.getExpiresAt());
+        }
         SecurityContextHolder.clearContext();
     }
-    
-    
-    @Transactional(readOnly = true)
-    public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Korisnik", "email", email));
-        return userMapper.toUserResponse(user);
-    }
 }
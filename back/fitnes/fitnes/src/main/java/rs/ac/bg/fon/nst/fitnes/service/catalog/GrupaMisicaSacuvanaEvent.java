@@ -0,0 +1,11 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+/**
+ * Objavljuje GrupaMisicaService posle kreiranja grupe; obradjuje se posle commit-a.
+ */
+public record GrupaMisicaSacuvanaEvent(Long id, String naziv) {
+}
@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.bg.fon.nst.fitnes.dto.FasetaBroj;
+import rs.ac.bg.fon.nst.fitnes.dto.FaseteResponse;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+/**
+ * Brojaci vezbi po paru (grupa misica, kategorija), ukupno i za svakog trenera. Pune se iz baze
+ * pri pokretanju, a posle toga ih VezbaSacuvanaEvent menja za po jednu vezbu, pa bocni filter
+ * kataloga ne radi GROUP BY niti ucitava kolekcije vezbi.
+ */
+@Component
+public class KatalogFacetIndex {
+
+    private static final Comparator<FasetaBroj> REDOSLED = Comparator.comparing(FasetaBroj::getGrupaMisicaId)
+            .thenComparing(FasetaBroj::getKategorijaId);
+
+    private final VezbaRepository vezbaRepository;
+    // Izmene se izvrsavaju jedna po jedna; citanje iz baze za rebuild ne blokira fasete
+    private final Object pisanje = new Object();
+
+    // Poslednji poznati polozaj svake vezbe, da bi izmena znala koji brojac da umanji
+    private Map<Long, VezbaFaseta> vezbe = new HashMap<>();
+    private Map<Par, Integer> ukupno = new HashMap<>();
+    private Map<Integer, Map<Par, Integer>> poTreneru = new HashMap<>();
+
+    public KatalogFacetIndex(VezbaRepository vezbaRepository) {
+        this.vezbaRepository = vezbaRepository;
+    }
+
+    // Periodicno ponovno citanje hvata izmene vezbi sa drugih instanci
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.facets.refresh-interval-ms:600000}",
+            fixedDelayString = "${catalog.facets.refresh-interval-ms:600000}")
+    public void rebuild() {
+        // Citanje je pod istim monitorom kao index(), pa izmena izmedju citanja i zamene ne moze da se izgubi
+        synchronized (pisanje) {
+            Map<Long, VezbaFaseta> noveVezbe = new HashMap<>();
+            Map<Par, Integer> novoUkupno = new HashMap<>();
+            Map<Integer, Map<Par, Integer>> noviPoTreneru = new HashMap<>();
+            for (VezbaFaseta vezba : vezbaRepository.findAllFasete()) {
+                noveVezbe.put(vezba.id(), vezba);
+                promeni(vezba, 1, novoUkupno, noviPoTreneru);
+            }
+            synchronized (this) {
+                vezbe = noveVezbe;
+                ukupno = novoUkupno;
+                poTreneru = noviPoTreneru;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVezbaSacuvana(VezbaSacuvanaEvent event) {
+        index(VezbaFaseta.from(event.vezba()));
+    }
+
+    public void index(VezbaFaseta vezba) {
+        synchronized (pisanje) {
+            synchronized (this) {
+                VezbaFaseta stara = vezbe.put(vezba.id(), vezba);
+                if (stara != null) {
+                    promeni(stara, -1, ukupno, poTreneru);
+                }
+                promeni(vezba, 1, ukupno, poTreneru);
+            }
+        }
+    }
+
+    /**
+     * Brojevi vezbi za filter; trenerId == null znaci ceo katalog.
+     */
+    public synchronized FaseteResponse fasete(Integer trenerId) {
+        Map<Par, Integer> brojaci = trenerId == null ? ukupno : poTreneru.getOrDefault(trenerId, Map.of());
+
+        long zbir = 0;
+        Map<Long, Long> poGrupi = new TreeMap<>();
+        Map<Long, Long> poKategoriji = new TreeMap<>();
+        List<FasetaBroj> parovi = new ArrayList<>(brojaci.size());
+        for (Map.Entry<Par, Integer> brojac : brojaci.entrySet()) {
+            Par par = brojac.getKey();
+            long broj = brojac.getValue();
+            zbir += broj;
+            poGrupi.merge(par.grupaMisicaId(), broj, Long::sum);
+            poKategoriji.merge(par.kategorijaId(), broj, Long::sum);
+            parovi.add(new FasetaBroj(par.grupaMisicaId(), par.kategorijaId(), broj));
+        }
+        parovi.sort(REDOSLED);
+        return new FaseteResponse(zbir, poGrupi, poKategoriji, parovi);
+    }
+
+    private static void promeni(VezbaFaseta vezba, int delta, Map<Par, Integer> ukupno,
+                                Map<Integer, Map<Par, Integer>> poTreneru) {
+        Par par = new Par(vezba.grupaMisicaId(), vezba.kategorijaId());
+        promeni(ukupno, par, delta);
+        if (vezba.trenerId() != null) {
+            Map<Par, Integer> trenerovi = poTreneru.computeIfAbsent(vezba.trenerId(), id -> new HashMap<>());
+            promeni(trenerovi, par, delta);
+            if (trenerovi.isEmpty()) {
+                poTreneru.remove(vezba.trenerId());
+            }
+        }
+    }
+
+    private static void promeni(Map<Par, Integer> brojaci, Par par, int delta) {
+        // merge uklanja par kada brojac padne na nulu
+        brojaci.merge(par, delta, (stari, d) -> stari + d == 0 ? null : stari + d);
+    }
+
+    private record Par(Long grupaMisicaId, Long kategorijaId) {
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.service.GrupaMisicaService;
+import rs.ac.bg.fon.nst.fitnes.service.KategorijaVezbeService;
+
+/**
+ * Unapred serijalizovani JSON (i gzip) listi kategorija i grupa misica. Izmena kataloga samo
+ * oznacava snimak kao zastareo, a prvo sledece citanje ga pravi ponovo (jednom za niz izmena);
+ * uz to se osvezava periodicno, zbog izmena na drugim instancama. Ostali GET-ovi ne prolaze kroz
+ * JPA, MapStruct ni Jackson. Verzija liste je poslednji updatedAt iz baze (u ms),
+ * pa je ista na svim instancama i posle restarta.
+ */
+@Component
+public class KatalogSnapshot {
+
+    private final KategorijaVezbeService kategorijaVezbeService;
+    private final GrupaMisicaService grupaMisicaService;
+    private final KategorijaVezbeRepository kategorijaVezbeRepository;
+    private final GrupaMisicaRepository grupaMisicaRepository;
+    private final VezbaRepository vezbaRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snimak kategorije;
+    // Broj izmena grupa na ovoj instanci; snimak je aktuelan ako je napravljen posle poslednje
+    private final AtomicLong izmeneGrupa = new AtomicLong();
+    private volatile SnimakGrupa grupe;
+
+    public KatalogSnapshot(KategorijaVezbeService kategorijaVezbeService, GrupaMisicaService grupaMisicaService,
+                           KategorijaVezbeRepository kategorijaVezbeRepository,
+                           GrupaMisicaRepository grupaMisicaRepository, VezbaRepository vezbaRepository,
+                           ObjectMapper objectMapper) {
+        this.kategorijaVezbeService = kategorijaVezbeService;
+        this.grupaMisicaService = grupaMisicaService;
+        this.kategorijaVezbeRepository = kategorijaVezbeRepository;
+        this.grupaMisicaRepository = grupaMisicaRepository;
+        this.vezbaRepository = vezbaRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snimak kategorije() {
+        Snimak snimak = kategorije;
+        return snimak != null ? snimak : osveziKategorije();
+    }
+
+    public Snimak grupe() {
+        SnimakGrupa stanje = grupe;
+        return stanje != null && stanje.izmena() == izmeneGrupa.get() ? stanje.snimak() : osveziGrupeAkoTreba();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.snapshot.refresh-interval-ms:600000}",
+            fixedDelayString = "${catalog.snapshot.refresh-interval-ms:600000}")
+    public void rebuild() {
+        osveziKategorije();
+        osveziGrupe();
+    }
+
+    // Lista grupa sadrzi i skracene vezbe, pa je menja svaka sacuvana vezba
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVezbaSacuvana(VezbaSacuvanaEvent event) {
+        izmeneGrupa.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGrupaMisicaSacuvana(GrupaMisicaSacuvanaEvent event) {
+        izmeneGrupa.incrementAndGet();
+    }
+
+    // Verzija se cita pre liste: izmena izmedju dva upita daje noviju listu sa starijom verzijom,
+    // a sledeci dogadjaj ili rebuild podize verziju; obrnuto bi verzija oznacila listu bez izmene
+    private synchronized Snimak osveziKategorije() {
+        long verzija = epohaMs(kategorijaVezbeRepository.findMaxUpdatedAt());
+        kategorije = snimi(kategorije, verzija, kategorijaVezbeService.getAllKategorijeVezbe());
+        return kategorije;
+    }
+
+    // Citaoci koji su cekali na monitor ne prave snimak ponovo ako ga je prethodni vec napravio
+    private synchronized Snimak osveziGrupeAkoTreba() {
+        SnimakGrupa stanje = grupe;
+        return stanje != null && stanje.izmena() == izmeneGrupa.get() ? stanje.snimak() : osveziGrupe();
+    }
+
+    // Lista grupa sadrzi i vezbe sa nazivom kategorije, pa zavisi od sve tri tabele
+    private synchronized Snimak osveziGrupe() {
+        // brojac pre citanja: izmena potvrdjena tokom citanja samo izaziva jos jedno osvezavanje
+        long izmena = izmeneGrupa.get();
+        long verzija = Stream.of(grupaMisicaRepository.findMaxUpdatedAt(), vezbaRepository.findMaxUpdatedAt(),
+                        kategorijaVezbeRepository.findMaxUpdatedAt())
+                .mapToLong(KatalogSnapshot::epohaMs)
+                .max()
+                .orElse(0L);
+        SnimakGrupa stari = grupe;
+        Snimak snimak = snimi(stari != null ? stari.snimak() : null, verzija, grupaMisicaService.getAllGrupeMisica());
+        grupe = new SnimakGrupa(snimak, izmena);
+        return snimak;
+    }
+
+    // Vreme se cuva kao LocalDateTime; tumaci se kao UTC samo da bi sve instance dobile isti broj
+    private static long epohaMs(LocalDateTime vreme) {
+        return vreme != null ? vreme.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    private Snimak snimi(Snimak stari, long verzija, Object lista) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(lista);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Katalog nije moguce serijalizovati", e);
+        }
+        if (stari != null && Arrays.equals(stari.json(), json)) {
+            return verzija > stari.verzija() ? new Snimak(verzija, stari.etag(), json, stari.gzip()) : stari;
+        }
+        // Satovi instanci koje upisuju nisu uskladjeni; verzija na ovoj instanci nikad ne opada
+        long novaVerzija = stari != null ? Math.max(verzija, stari.verzija()) : verzija;
+        return new Snimak(novaVerzija, '"' + sazetak(json) + '"', json, gzip(json));
+    }
+
+    private static String sazetak(byte[] json) {
+        try {
+            byte[] hes = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream izlaz = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(izlaz)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return izlaz.toByteArray();
+    }
+
+    private record SnimakGrupa(Snimak snimak, long izmena) {
+    }
+
+    /**
+     * Nepromenljiv snimak jedne liste. ETag je jak i zavisi samo od sadrzaja, pa je isti na
+     * svim instancama; gzip varijanta dobija sopstveni ETag jer su bajtovi drugaciji.
+     */
+    public record Snimak(long verzija, String etag, byte[] json, byte[] gzip) {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+}
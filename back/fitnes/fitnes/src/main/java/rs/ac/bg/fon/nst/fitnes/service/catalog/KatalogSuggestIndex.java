@@ -0,0 +1,95 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.bg.fon.nst.fitnes.dto.PredlogResponse;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.SuggestTrie.Predlog;
+
+/**
+ * Dopune naziva vezbi i grupa misica za polje pretrage. Upit cita samo trenutni SuggestTrie;
+ * izmena kataloga pravi novi trie iz podataka u memoriji i zamenjuje referencu, a popularnost
+ * (broj pojavljivanja u planovima) se periodicno osvezava iz baze.
+ */
+@Component
+public class KatalogSuggestIndex {
+
+    public static final String TIP_VEZBA = "VEZBA";
+    public static final String TIP_GRUPA_MISICA = "GRUPA_MISICA";
+    // Broj dopuna koje svaki cvor cuva; gornja granica za limit upita
+    public static final int MAX_PREDLOGA = 10;
+
+    private final VezbaRepository vezbaRepository;
+    private final GrupaMisicaRepository grupaMisicaRepository;
+
+    private volatile SuggestTrie trie = SuggestTrie.EMPTY;
+    // Izvor za ponovnu izgradnju; menja se samo pod monitorom ove klase
+    private Map<Long, Predlog> vezbe = new HashMap<>();
+    private Map<Long, Predlog> grupe = new HashMap<>();
+
+    public KatalogSuggestIndex(VezbaRepository vezbaRepository, GrupaMisicaRepository grupaMisicaRepository) {
+        this.vezbaRepository = vezbaRepository;
+        this.grupaMisicaRepository = grupaMisicaRepository;
+    }
+
+    public List<PredlogResponse> suggest(String upit, int limit) {
+        return trie.complete(upit, Math.min(limit, MAX_PREDLOGA)).stream()
+                .map(predlog -> new PredlogResponse(predlog.tip(), predlog.id(), predlog.naziv()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.suggest.refresh-interval-ms:600000}",
+            fixedDelayString = "${catalog.suggest.refresh-interval-ms:600000}")
+    public synchronized void rebuild() {
+        vezbe = ucitaj(vezbaRepository.findNaziviSaPopularnoscu(), TIP_VEZBA);
+        grupe = ucitaj(grupaMisicaRepository.findNaziviSaPopularnoscu(), TIP_GRUPA_MISICA);
+        objavi();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onVezbaSacuvana(VezbaSacuvanaEvent event) {
+        VezbaDokument vezba = event.vezba();
+        Predlog stari = vezbe.get(vezba.id());
+        if (stari != null && stari.naziv().equals(vezba.naziv())) {
+            return;
+        }
+        vezbe.put(vezba.id(), new Predlog(TIP_VEZBA, vezba.id(), vezba.naziv(), stari != null ? stari.popularnost() : 0));
+        objavi();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGrupaMisicaSacuvana(GrupaMisicaSacuvanaEvent event) {
+        Predlog stari = grupe.get(event.id());
+        grupe.put(event.id(), new Predlog(TIP_GRUPA_MISICA, event.id(), event.naziv(),
+                stari != null ? stari.popularnost() : 0));
+        objavi();
+    }
+
+    private void objavi() {
+        List<Predlog> svi = new ArrayList<>(vezbe.size() + grupe.size());
+        svi.addAll(vezbe.values());
+        svi.addAll(grupe.values());
+        trie = SuggestTrie.build(svi, MAX_PREDLOGA);
+    }
+
+    private static Map<Long, Predlog> ucitaj(List<NazivPopularnost> redovi, String tip) {
+        Map<Long, Predlog> predlozi = new HashMap<>();
+        for (NazivPopularnost red : redovi) {
+            predlozi.put(red.id(), new Predlog(tip, red.id(), red.naziv(), red.popularnost()));
+        }
+        return predlozi;
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+/**
+ * Naziv stavke kataloga sa brojem njenih pojavljivanja u planovima treninga.
+ */
+public record NazivPopularnost(Long id, String naziv, Long popularnost) {
+}
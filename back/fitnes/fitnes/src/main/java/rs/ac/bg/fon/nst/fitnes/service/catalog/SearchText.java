@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import rs.ac.bg.fon.nst.fitnes.domain.NazivNormalizer;
+
+/**
+ * Tokeni za pretragu: mala slova i latinica bez dijakritika (NazivNormalizer.fold), tako da
+ * "cucanj" nalazi "Čučanj".
+ * Isto pravilo se primenjuje i na tekst koji se indeksira i na upit.
+ */
+public final class SearchText {
+
+    private static final Pattern RAZDVAJANJE = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchText() {
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : RAZDVAJANJE.split(NazivNormalizer.fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
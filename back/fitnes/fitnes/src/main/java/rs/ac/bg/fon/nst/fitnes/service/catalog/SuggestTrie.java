@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Nepromenljiv prefiksni trie u nizovima. Cvorovi su poredjani po sirini, pa su deca svakog
+ * cvora susedna i sortirana po slovu; svaki cvor unapred cuva K najpopularnijih dopuna.
+ * Upit je zato jedan prolaz kroz prefiks i kopiranje najvise K stavki.
+ */
+final class SuggestTrie {
+
+    private static final Comparator<Predlog> RANG = Comparator.comparingLong(Predlog::popularnost).reversed()
+            .thenComparing(Predlog::naziv)
+            .thenComparing(Predlog::id);
+
+    static final SuggestTrie EMPTY = build(List.of(), 1);
+
+    private final Predlog[] predlozi;
+    private final char[] slova;
+    // deca cvora i su cvorovi [prvoDete[i], prvoDete[i + 1])
+    private final int[] prvoDete;
+    // dopune cvora i su predlozi[top[j]] za j iz [topPocetak[i], topPocetak[i + 1])
+    private final int[] topPocetak;
+    private final int[] top;
+
+    private SuggestTrie(Predlog[] predlozi, char[] slova, int[] prvoDete, int[] topPocetak, int[] top) {
+        this.predlozi = predlozi;
+        this.slova = slova;
+        this.prvoDete = prvoDete;
+        this.topPocetak = topPocetak;
+        this.top = top;
+    }
+
+    static SuggestTrie build(List<Predlog> ulaz, int k) {
+        // umetanje po rangu: prvih K predloga koji prodju kroz cvor su bas njegovih K najboljih
+        Predlog[] predlozi = ulaz.stream().sorted(RANG).toArray(Predlog[]::new);
+        Cvor koren = new Cvor();
+        int brojCvorova = 1;
+        for (int i = 0; i < predlozi.length; i++) {
+            List<String> reci = SearchText.tokens(predlozi[i].naziv());
+            // dopuna moze da krene od bilo koje reci naziva: "press" nalazi "Bench press"
+            for (int pocetak = 0; pocetak < reci.size(); pocetak++) {
+                String kljuc = String.join(" ", reci.subList(pocetak, reci.size()));
+                Cvor cvor = koren;
+                for (int c = 0; c < kljuc.length(); c++) {
+                    Cvor dete = cvor.deca.get(kljuc.charAt(c));
+                    if (dete == null) {
+                        dete = new Cvor();
+                        cvor.deca.put(kljuc.charAt(c), dete);
+                        brojCvorova++;
+                    }
+                    cvor = dete;
+                    cvor.dodaj(i, k);
+                }
+            }
+        }
+
+        char[] slova = new char[brojCvorova];
+        int[] prvoDete = new int[brojCvorova + 1];
+        int[] topPocetak = new int[brojCvorova + 1];
+        int[] top = new int[koren.ukupnoTop()];
+
+        Deque<Cvor> red = new ArrayDeque<>();
+        red.add(koren);
+        int sledeci = 1;
+        int brojTop = 0;
+        for (int i = 0; i < brojCvorova; i++) {
+            Cvor cvor = red.poll();
+            prvoDete[i] = sledeci;
+            for (Map.Entry<Character, Cvor> dete : cvor.deca.entrySet()) {
+                slova[sledeci++] = dete.getKey();
+                red.add(dete.getValue());
+            }
+            topPocetak[i] = brojTop;
+            for (int j = 0; j < cvor.brojTop; j++) {
+                top[brojTop++] = cvor.top[j];
+            }
+        }
+        prvoDete[brojCvorova] = sledeci;
+        topPocetak[brojCvorova] = brojTop;
+        return new SuggestTrie(predlozi, slova, prvoDete, topPocetak, top);
+    }
+
+    /**
+     * Najvise limit dopuna za prefiks, od najpopularnije.
+     */
+    List<Predlog> complete(String upit, int limit) {
+        String prefiks = String.join(" ", SearchText.tokens(upit));
+        if (prefiks.isEmpty()) {
+            return List.of();
+        }
+        int cvor = 0;
+        for (int c = 0; c < prefiks.length(); c++) {
+            int dete = Arrays.binarySearch(slova, prvoDete[cvor], prvoDete[cvor + 1], prefiks.charAt(c));
+            if (dete < 0) {
+                return List.of();
+            }
+            cvor = dete;
+        }
+        int kraj = Math.min(topPocetak[cvor + 1], topPocetak[cvor] + limit);
+        List<Predlog> rezultat = new ArrayList<>(kraj - topPocetak[cvor]);
+        for (int j = topPocetak[cvor]; j < kraj; j++) {
+            rezultat.add(predlozi[top[j]]);
+        }
+        return rezultat;
+    }
+
+    record Predlog(String tip, Long id, String naziv, long popularnost) {
+    }
+
+    private static final class Cvor {
+        private final TreeMap<Character, Cvor> deca = new TreeMap<>();
+        private int[] top = new int[0];
+        private int brojTop;
+
+        void dodaj(int predlog, int k) {
+            // isti predlog stize vise puta kada mu se reci ponavljaju
+            if (brojTop == k || (brojTop > 0 && top[brojTop - 1] == predlog)) {
+                return;
+            }
+            if (brojTop == top.length) {
+                top = Arrays.copyOf(top, Math.min(k, Math.max(2, brojTop * 2)));
+            }
+            top[brojTop++] = predlog;
+        }
+
+        int ukupnoTop() {
+            int ukupno = brojTop;
+            for (Cvor dete : deca.values()) {
+                ukupno += dete.ukupnoTop();
+            }
+            return ukupno;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+
+/**
+ * Nepromenljiv snimak vezbe za indekse kataloga u memoriji. Ne drzi reference na entitete,
+ * pa se moze koristiti i posle zatvaranja transakcije.
+ */
+public record VezbaDokument(Long id, String naziv, String opis, String misiciNaKojeUtice, String savet,
+                            String slika, Integer preporuceniBrojSerija, Integer preporuceniBrojPonavljanja,
+                            Long kategorijaId, String kategorijaNaziv, Long grupaMisicaId, Integer trenerId) {
+
+    public static VezbaDokument from(Vezba vezba) {
+        return new VezbaDokument(vezba.getId(), vezba.getNaziv(), vezba.getOpis(), vezba.getMisiciNaKojeUtice(),
+                vezba.getSavet(), vezba.getSlika(), vezba.getPreporuceniBrojSerija(),
+                vezba.getPreporuceniBrojPonavljanja(), vezba.getKategorija().getId(),
+                vezba.getKategorija().getNaziv(), vezba.getGrupaMisica().getId(),
+                vezba.getTrener() != null ? vezba.getTrener().getId() : null);
+    }
+
+    public VezbaSummary toSummary() {
+        return new VezbaSummary(id, naziv, slika, preporuceniBrojSerija, preporuceniBrojPonavljanja,
+                kategorijaId, kategorijaNaziv, grupaMisicaId);
+    }
+}
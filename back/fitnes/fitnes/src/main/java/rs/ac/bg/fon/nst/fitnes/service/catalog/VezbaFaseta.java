@@ -0,0 +1,15 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+/**
+ * Polozaj vezbe u filterima kataloga: grupa misica, kategorija i trener koji ju je dodao.
+ */
+public record VezbaFaseta(Long id, Long grupaMisicaId, Long kategorijaId, Integer trenerId) {
+
+    public static VezbaFaseta from(VezbaDokument vezba) {
+        return new VezbaFaseta(vezba.id(), vezba.grupaMisicaId(), vezba.kategorijaId(), vezba.trenerId());
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+/**
+ * Objavljuje VezbaService posle kreiranja ili izmene vezbe. Indeksi kataloga ga obradjuju
+ * tek posle commit-a, pa ponistena izmena nikad ne stigne do njih.
+ */
+public record VezbaSacuvanaEvent(VezbaDokument vezba) {
+}
@@ -0,0 +1,221 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+/**
+ * Invertovani indeks nad nazivom, opisom, misicima i savetom vezbi, sa BM25 rangiranjem.
+ * Puni se iz baze pri pokretanju, a posle toga ga odrzavaju dogadjaji VezbaSacuvanaEvent,
+ * pa pretraga ne radi nijedan upit.
+ */
+@Component
+public class VezbaSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    // Rec koja samo pocinje upitom vredi manje od cele reci
+    static final double PREFIKS_FAKTOR = 0.7;
+    // Najvise termina u koje se prosiruje jedan prefiks, da kratak upit ne bi obisao ceo recnik
+    static final int MAX_PROSIRENJA = 64;
+
+    private static final float TEZINA_NAZIV = 3f;
+    private static final float TEZINA_MISICI = 2f;
+    private static final float TEZINA_OPIS = 1f;
+    private static final float TEZINA_SAVET = 1f;
+
+    private static final Comparator<Map.Entry<Long, Double>> REDOSLED =
+            Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final VezbaRepository vezbaRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Izmene se izvrsavaju jedna po jedna; citanje iz baze za rebuild ne blokira pretragu
+    private final Object pisanje = new Object();
+
+    // termin -> (id vezbe -> tezinska frekvencija); sortirano zbog prefiksnih upita
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, Zapis> dokumenti = new HashMap<>();
+    private double ukupnaDuzina;
+
+    public VezbaSearchIndex(VezbaRepository vezbaRepository) {
+        this.vezbaRepository = vezbaRepository;
+    }
+
+    // Periodicno ponovno citanje hvata izmene vezbi sa drugih instanci
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.search.refresh-interval-ms:600000}",
+            fixedDelayString = "${catalog.search.refresh-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (pisanje) {
+            NavigableMap<String, Map<Long, Float>> noviPostings = new TreeMap<>();
+            Map<Long, Zapis> noviDokumenti = new HashMap<>();
+            double novaDuzina = 0;
+            for (VezbaDokument dokument : vezbaRepository.findAllDokumenti()) {
+                Zapis zapis = zapis(dokument);
+                dodaj(zapis, noviPostings);
+                noviDokumenti.put(dokument.id(), zapis);
+                novaDuzina += zapis.duzina();
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = noviPostings;
+                dokumenti = noviDokumenti;
+                ukupnaDuzina = novaDuzina;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVezbaSacuvana(VezbaSacuvanaEvent event) {
+        index(event.vezba());
+    }
+
+    public void index(VezbaDokument dokument) {
+        Zapis zapis = zapis(dokument);
+        synchronized (pisanje) {
+            lock.writeLock().lock();
+            try {
+                Zapis stari = dokumenti.put(dokument.id(), zapis);
+                if (stari != null) {
+                    ukloni(stari);
+                    ukupnaDuzina -= stari.duzina();
+                }
+                dodaj(zapis, postings);
+                ukupnaDuzina += zapis.duzina();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Vezbe koje sadrze svaku rec upita, celu ili kao prefiks, od najrelevantnije.
+     */
+    public List<VezbaDokument> search(String upit, int limit) {
+        List<String> tokeni = SearchText.tokens(upit).stream().distinct().toList();
+        if (tokeni.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (dokumenti.isEmpty()) {
+                return List.of();
+            }
+            double prosecnaDuzina = ukupnaDuzina / dokumenti.size();
+
+            Map<Long, Double> skorovi = null;
+            for (String token : tokeni) {
+                Map<Long, Double> zaToken = skoroviZaToken(token, prosecnaDuzina);
+                if (skorovi == null) {
+                    skorovi = zaToken;
+                } else {
+                    skorovi.keySet().retainAll(zaToken.keySet());
+                    skorovi.replaceAll((id, skor) -> skor + zaToken.get(id));
+                }
+                if (skorovi.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return najbolji(skorovi, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> skoroviZaToken(String token, double prosecnaDuzina) {
+        Map<Long, Double> skorovi = new HashMap<>();
+        int brojDokumenata = dokumenti.size();
+        int prosireno = 0;
+        // tacan termin je prvi kljuc podmape, pa ga ogranicenje prosirenja nikad ne odbaci
+        for (Map.Entry<String, Map<Long, Float>> termin
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (prosireno++ == MAX_PROSIRENJA) {
+                break;
+            }
+            Map<Long, Float> lista = termin.getValue();
+            double idf = Math.log(1 + (brojDokumenata - lista.size() + 0.5) / (lista.size() + 0.5));
+            double faktor = termin.getKey().equals(token) ? 1.0 : PREFIKS_FAKTOR;
+
+            for (Map.Entry<Long, Float> pojava : lista.entrySet()) {
+                double tf = pojava.getValue();
+                double norma = K1 * (1 - B + B * dokumenti.get(pojava.getKey()).duzina() / prosecnaDuzina);
+                double skor = faktor * idf * tf * (K1 + 1) / (tf + norma);
+                // vise termina sa istim prefiksom u istoj vezbi ne sabira se
+                skorovi.merge(pojava.getKey(), skor, Math::max);
+            }
+        }
+        return skorovi;
+    }
+
+    private List<VezbaDokument> najbolji(Map<Long, Double> skorovi, int limit) {
+        // min-heap velicine limit: na vrhu je najslabiji od do sada najboljih
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(REDOSLED.reversed());
+        for (Map.Entry<Long, Double> skor : skorovi.entrySet()) {
+            heap.offer(skor);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap);
+        top.sort(REDOSLED);
+        return top.stream()
+                .map(skor -> dokumenti.get(skor.getKey()).dokument())
+                .toList();
+    }
+
+    private static Zapis zapis(VezbaDokument dokument) {
+        Map<String, Float> termini = new HashMap<>();
+        float duzina = dodajPolje(termini, dokument.naziv(), TEZINA_NAZIV)
+                + dodajPolje(termini, dokument.misiciNaKojeUtice(), TEZINA_MISICI)
+                + dodajPolje(termini, dokument.opis(), TEZINA_OPIS)
+                + dodajPolje(termini, dokument.savet(), TEZINA_SAVET);
+        return new Zapis(dokument, termini, duzina);
+    }
+
+    private static float dodajPolje(Map<String, Float> termini, String tekst, float tezina) {
+        List<String> tokeni = SearchText.tokens(tekst);
+        for (String token : tokeni) {
+            termini.merge(token, tezina, Float::sum);
+        }
+        return tokeni.size() * tezina;
+    }
+
+    private static void dodaj(Zapis zapis, NavigableMap<String, Map<Long, Float>> postings) {
+        Long id = zapis.dokument().id();
+        zapis.termini().forEach((termin, tf) -> postings.computeIfAbsent(termin, t -> new HashMap<>()).put(id, tf));
+    }
+
+    private void ukloni(Zapis zapis) {
+        Long id = zapis.dokument().id();
+        for (String termin : zapis.termini().keySet()) {
+            Map<Long, Float> lista = postings.get(termin);
+            lista.remove(id);
+            if (lista.isEmpty()) {
+                postings.remove(termin);
+            }
+        }
+    }
+
+    private record Zapis(VezbaDokument dokument, Map<String, Float> termini, float duzina) {
+    }
+}
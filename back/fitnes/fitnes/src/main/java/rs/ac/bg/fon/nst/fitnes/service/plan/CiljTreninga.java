@@ -0,0 +1,74 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import rs.ac.bg.fon.nst.fitnes.domain.NazivNormalizer;
+
+/**
+ * Profil cilja iz PlanTreningaGenerationRequest.cilj: koliko vezbi ide u dan i kako se
+ * preporuceni broj serija i ponavljanja vezbe prilagodjava cilju.
+ */
+public enum CiljTreninga {
+
+    SNAGA(5, 1, 0.5, 3, 6, 3, 6),
+    HIPERTROFIJA(7, 0, 1.0, 3, 5, 8, 12),
+    IZDRZLJIVOST(8, -1, 1.5, 2, 4, 15, 25),
+    OPSTI(7, 0, 1.0, 1, 10, 1, 50);
+
+    private static final int PODRAZUMEVANE_SERIJE = 3;
+    private static final int PODRAZUMEVANA_PONAVLJANJA = 10;
+
+    private final int vezbePoDanu;
+    private final int dodatneSerije;
+    private final double faktorPonavljanja;
+    private final int minSerija;
+    private final int maxSerija;
+    private final int minPonavljanja;
+    private final int maxPonavljanja;
+
+    CiljTreninga(int vezbePoDanu, int dodatneSerije, double faktorPonavljanja, int minSerija, int maxSerija,
+                 int minPonavljanja, int maxPonavljanja) {
+        this.vezbePoDanu = vezbePoDanu;
+        this.dodatneSerije = dodatneSerije;
+        this.faktorPonavljanja = faktorPonavljanja;
+        this.minSerija = minSerija;
+        this.maxSerija = maxSerija;
+        this.minPonavljanja = minPonavljanja;
+        this.maxPonavljanja = maxPonavljanja;
+    }
+
+    /**
+     * Cilj je slobodan tekst sa forme; prepoznaju se kljucne reci, a sve ostalo je OPSTI.
+     */
+    public static CiljTreninga from(String cilj) {
+        String tekst = NazivNormalizer.fold(cilj);
+        if (tekst.contains("snag")) {
+            return SNAGA;
+        }
+        // "gubitak masti" je izdrzljivost, pa se proverava pre "masa"
+        if (tekst.contains("izdrzlj") || tekst.contains("kondic") || tekst.contains("mrsa")
+                || tekst.contains("masti") || tekst.contains("masnoc")) {
+            return IZDRZLJIVOST;
+        }
+        if (tekst.contains("mas") || tekst.contains("hipertrof") || tekst.contains("misic")) {
+            return HIPERTROFIJA;
+        }
+        return OPSTI;
+    }
+
+    public int vezbePoDanu() {
+        return vezbePoDanu;
+    }
+
+    public int brojSerija(Integer preporuceno) {
+        int serije = (preporuceno != null ? preporuceno : PODRAZUMEVANE_SERIJE) + dodatneSerije;
+        return Math.clamp(serije, minSerija, maxSerija);
+    }
+
+    public int brojPonavljanja(Integer preporuceno) {
+        long ponavljanja = Math.round((preporuceno != null ? preporuceno : PODRAZUMEVANA_PONAVLJANJA) * faktorPonavljanja);
+        return Math.clamp(ponavljanja, minPonavljanja, maxPonavljanja);
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+/**
+ * Ulaz generatora: kandidati iz trazenih grupa, cilj, broj dana i seed za nasumicne izbore.
+ */
+public record GeneratorZahtev(IndeksVezbi indeks, CiljTreninga cilj, int brojDana, long seed) {
+}
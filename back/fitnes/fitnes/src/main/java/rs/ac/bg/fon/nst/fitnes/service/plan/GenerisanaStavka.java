@@ -0,0 +1,11 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+/**
+ * Jedna vezba generisanog dana sa serijama i ponavljanjima prilagodjenim cilju.
+ */
+public record GenerisanaStavka(Long vezbaId, int brojSerija, int brojPonavljanja) {
+}
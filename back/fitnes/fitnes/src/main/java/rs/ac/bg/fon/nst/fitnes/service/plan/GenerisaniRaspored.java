@@ -0,0 +1,13 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import java.util.List;
+
+/**
+ * Izlaz generatora sa seed-om koji ga ponovo proizvodi, pre nego sto se sacuva kao planovi.
+ */
+public record GenerisaniRaspored(long seed, List<List<GenerisanaStavka>> dani) {
+}
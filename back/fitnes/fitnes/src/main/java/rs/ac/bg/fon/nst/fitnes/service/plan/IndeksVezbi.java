@@ -0,0 +1,71 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Nepromenljiv indeks kandidata grupisan po grupi misica, pa po kategoriji. Vezbe su u jednom
+ * nizu, a grupe i kategorije cuvaju samo pozicije u njemu, pa generator radi nad nizovima int.
+ */
+public final class IndeksVezbi {
+
+    private final VezbaKandidat[] vezbe;
+    private final List<Grupa> grupe;
+
+    private IndeksVezbi(VezbaKandidat[] vezbe, List<Grupa> grupe) {
+        this.vezbe = vezbe;
+        this.grupe = grupe;
+    }
+
+    public static IndeksVezbi of(List<VezbaKandidat> kandidati) {
+        VezbaKandidat[] vezbe = kandidati.toArray(VezbaKandidat[]::new);
+        // grupa -> kategorija -> pozicije u nizu vezbe; sortirano zbog ponovljivosti sa istim seed-om
+        Map<Long, Map<Long, List<Integer>>> raspodela = new TreeMap<>();
+        for (int i = 0; i < vezbe.length; i++) {
+            raspodela.computeIfAbsent(vezbe[i].grupaMisicaId(), id -> new TreeMap<>())
+                    .computeIfAbsent(vezbe[i].kategorijaId(), id -> new ArrayList<>())
+                    .add(i);
+        }
+
+        List<Grupa> grupe = new ArrayList<>(raspodela.size());
+        for (Map.Entry<Long, Map<Long, List<Integer>>> grupa : raspodela.entrySet()) {
+            int[][] kategorije = grupa.getValue().values().stream()
+                    .map(pozicije -> pozicije.stream().mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+            grupe.add(new Grupa(grupa.getKey(), kategorije));
+        }
+        return new IndeksVezbi(vezbe, List.copyOf(grupe));
+    }
+
+    public int brojVezbi() {
+        return vezbe.length;
+    }
+
+    public VezbaKandidat vezba(int pozicija) {
+        return vezbe[pozicija];
+    }
+
+    public List<Grupa> grupe() {
+        return grupe;
+    }
+
+    /**
+     * Grupa misica sa pozicijama svojih vezbi, po jedan niz za svaku kategoriju.
+     */
+    public record Grupa(Long id, int[][] kategorije) {
+
+        public int brojVezbi() {
+            int broj = 0;
+            for (int[] kategorija : kategorije) {
+                broj += kategorija.length;
+            }
+            return broj;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import java.util.List;
+
+/**
+ * Pravi raspored vezbi po danima iz indeksa u memoriji; ne koristi bazu. PlanTreningaService
+ * od rezultata pravi planove, pa se pravila izbora mogu menjati drugom implementacijom.
+ */
+public interface PlanGenerator {
+
+    /**
+     * Za svaki dan lista razlicitih vezbi. Isti zahtev (ukljucujuci seed) daje isti rezultat.
+     */
+    List<List<GenerisanaStavka>> generisi(GeneratorZahtev zahtev);
+}
@@ -0,0 +1,112 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import org.springframework.stereotype.Component;
+import rs.ac.bg.fon.nst.fitnes.service.plan.IndeksVezbi.Grupa;
+
+/**
+ * Generator koji svaki dan deli vezbe ravnomerno na trazene grupe misica, unutar grupe
+ * naizmenicno uzima iz razlicitih kategorija i ne ponavlja vezbu u nekoliko uzastopnih dana.
+ * Kada trazenih grupa ima vise nego mesta u danu, grupe se smenjuju po danima.
+ */
+@Component
+public class UravnotezeniPlanGenerator implements PlanGenerator {
+
+    // Vezba se ne ponavlja u ovoliko sledecih dana, osim kada grupa nema drugih vezbi
+    static final int PROZOR_BEZ_PONAVLJANJA = 2;
+
+    @Override
+    public List<List<GenerisanaStavka>> generisi(GeneratorZahtev zahtev) {
+        IndeksVezbi indeks = zahtev.indeks();
+        List<Grupa> grupe = indeks.grupe();
+        CiljTreninga cilj = zahtev.cilj();
+
+        int[] poslednjiDan = new int[indeks.brojVezbi()];
+        Arrays.fill(poslednjiDan, Integer.MIN_VALUE / 2);
+
+        // po jedan sampler za svaku kategoriju svake grupe, sa seed-ovima izvedenim iz zahteva
+        SplittableRandom random = new SplittableRandom(zahtev.seed());
+        VezbaSampler[][] sampleri = new VezbaSampler[grupe.size()][];
+        for (int g = 0; g < grupe.size(); g++) {
+            int[][] kategorije = grupe.get(g).kategorije();
+            sampleri[g] = new VezbaSampler[kategorije.length];
+            for (int k = 0; k < kategorije.length; k++) {
+                sampleri[g][k] = new VezbaSampler(kategorije[k].length, random.nextLong());
+            }
+        }
+
+        List<List<GenerisanaStavka>> dani = new ArrayList<>(zahtev.brojDana());
+        for (int dan = 0; dan < zahtev.brojDana(); dan++) {
+            int[] kvote = kvote(grupe, cilj.vezbePoDanu(), dan);
+            List<GenerisanaStavka> stavke = new ArrayList<>(cilj.vezbePoDanu());
+            for (int g = 0; g < grupe.size(); g++) {
+                for (int pozicija : izaberi(grupe.get(g), sampleri[g], kvote[g], dan + g, dan, poslednjiDan)) {
+                    VezbaKandidat vezba = indeks.vezba(pozicija);
+                    stavke.add(new GenerisanaStavka(vezba.id(), cilj.brojSerija(vezba.preporuceniBrojSerija()),
+                            cilj.brojPonavljanja(vezba.preporuceniBrojPonavljanja())));
+                }
+            }
+            dani.add(stavke);
+        }
+        return dani;
+    }
+
+    /**
+     * Koliko vezbi dan uzima iz svake grupe: redom po jedna, dok se ne popuni dan ili ne
+     * potrose sve vezbe. Dan pocinje od grupe posle poslednje koju je prethodni dan dobio,
+     * pa i visak i grupe koje ne stanu u dan idu u krug.
+     */
+    static int[] kvote(List<Grupa> grupe, int vezbePoDanu, int dan) {
+        int[] kvote = new int[grupe.size()];
+        if (grupe.isEmpty()) {
+            return kvote;
+        }
+        int preostalo = vezbePoDanu;
+        int bezMesta = 0;
+        int g = (int) ((long) dan * vezbePoDanu % grupe.size());
+        for (; preostalo > 0 && bezMesta < grupe.size(); g = (g + 1) % grupe.size()) {
+            if (kvote[g] < grupe.get(g).brojVezbi()) {
+                kvote[g]++;
+                preostalo--;
+                bezMesta = 0;
+            } else {
+                bezMesta++;
+            }
+        }
+        return kvote;
+    }
+
+    private static int[] izaberi(Grupa grupa, VezbaSampler[] sampleri, int kvota, int pomak, int dan,
+                                 int[] poslednjiDan) {
+        int[][] kategorije = grupa.kategorije();
+        int[] izabrane = new int[kvota];
+        int broj = 0;
+        // prvo uz prozor bez ponavljanja; ako grupa nema dovoljno vezbi, samo bez ponavljanja u istom danu
+        for (int prozor : new int[]{PROZOR_BEZ_PONAVLJANJA, 0}) {
+            int bezIzbora = 0;
+            for (int k = pomak % kategorije.length; broj < kvota && bezIzbora < kategorije.length;
+                 k = (k + 1) % kategorije.length) {
+                int[] pozicije = kategorije[k];
+                IntPredicate dozvoljena = p -> dan - poslednjiDan[pozicije[p]] > prozor;
+                int[] izbor = sampleri[k].izaberi(1, dozvoljena);
+                if (izbor.length == 0) {
+                    bezIzbora++;
+                    continue;
+                }
+                int pozicija = pozicije[izbor[0]];
+                poslednjiDan[pozicija] = dan;
+                izabrane[broj++] = pozicija;
+                bezIzbora = 0;
+            }
+        }
+        return broj == kvota ? izabrane : Arrays.copyOf(izabrane, broj);
+    }
+}
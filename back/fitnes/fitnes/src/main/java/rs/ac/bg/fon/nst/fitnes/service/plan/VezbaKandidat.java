@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+/**
+ * Vezba kao kandidat za generisani plan: samo ono sto je potrebno za izbor i stavku plana.
+ */
+public record VezbaKandidat(Long id, Integer preporuceniBrojSerija, Integer preporuceniBrojPonavljanja,
+                            Long grupaMisicaId, Long kategorijaId) {
+}
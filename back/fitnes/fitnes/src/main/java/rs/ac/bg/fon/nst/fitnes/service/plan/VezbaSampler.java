@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Nasumican izbor razlicitih kandidata bez mesanja cele liste: delimicni Fisher-Yates nad
+ * nizom pozicija, pa izbor k vezbi kosta O(k) bez obzira na velicinu kataloga. Isti seed i
+ * isti redosled kandidata daju iste izbore.
+ */
+public final class VezbaSampler {
+
+    // Pozicije kandidata; permutacija se nastavlja iz dana u dan, sto ne menja raspodelu
+    private final int[] pozicije;
+    private final SplittableRandom random;
+
+    public VezbaSampler(int brojKandidata, long seed) {
+        this.pozicije = new int[brojKandidata];
+        for (int i = 0; i < brojKandidata; i++) {
+            pozicije[i] = i;
+        }
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Najvise k razlicitih pozicija kandidata, svaki k-podskup jednako verovatan.
+     */
+    public int[] izaberi(int k) {
+        return izaberi(k, pozicija -> true);
+    }
+
+    /**
+     * Kao izaberi(k), ali samo medju pozicijama koje prolaze uslov. Odbijena pozicija se
+     * sklanja na kraj aktivnog dela niza, pa se ne izvlaci ponovo; cena je O(k + odbijenih).
+     */
+    public int[] izaberi(int k, IntPredicate dozvoljena) {
+        int kraj = pozicije.length;
+        int[] izabrane = new int[Math.min(k, kraj)];
+        int broj = 0;
+        while (broj < izabrane.length && broj < kraj) {
+            int j = broj + random.nextInt(kraj - broj);
+            int pozicija = pozicije[j];
+            if (dozvoljena.test(pozicija)) {
+                pozicije[j] = pozicije[broj];
+                pozicije[broj] = pozicija;
+                izabrane[broj++] = pozicija;
+            } else {
+                kraj--;
+                pozicije[j] = pozicije[kraj];
+                pozicije[kraj] = pozicija;
+            }
+        }
+        return broj == izabrane.length ? izabrane : Arrays.copyOf(izabrane, broj);
+    }
+}
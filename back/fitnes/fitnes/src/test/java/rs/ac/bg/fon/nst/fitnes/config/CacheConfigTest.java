@@ -0,0 +1,100 @@
+package rs.ac.bg.fon.nst.fitnes.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.mapper.VezbaMapper;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.VezbaService;
+import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogFacetIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSuggestIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSearchIndex;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(CacheConfigTest.TestConfig.class)
+class CacheConfigTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class TestConfig {
+
+        @Bean
+        VezbaRepository vezbaRepository() {
+            return mock(VezbaRepository.class);
+        }
+
+        @Bean
+        GrupaMisicaRepository grupaMisicaRepository() {
+            return mock(GrupaMisicaRepository.class);
+        }
+
+        @Bean
+        VezbaMapper vezbaMapper() {
+            return mock(VezbaMapper.class);
+        }
+
+        @Bean
+        CurrentUserResolver currentUserResolver() {
+            return mock(CurrentUserResolver.class);
+        }
+
+        @Bean
+        VezbaService vezbaService(VezbaRepository vezbaRepository, GrupaMisicaRepository grupaMisicaRepository,
+                                  CurrentUserResolver currentUserResolver, VezbaMapper vezbaMapper) {
+            return new VezbaService(vezbaRepository, grupaMisicaRepository, mock(KategorijaVezbeRepository.class),
+                    currentUserResolver, vezbaMapper, mock(FileStorageService.class), mock(VezbaSearchIndex.class),
+                    mock(KatalogSuggestIndex.class), mock(KatalogFacetIndex.class),
+                    mock(ApplicationEventPublisher.class));
+        }
+    }
+
+    @Autowired
+    private VezbaService vezbaService;
+    @Autowired
+    private VezbaRepository vezbaRepository;
+    @Autowired
+    private VezbaMapper vezbaMapper;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        reset(vezbaRepository, vezbaMapper);
+    }
+
+    @Test
+    void testGetVezbaById_SecondCallServedFromCache() {
+        Vezba vezba = new Vezba();
+        vezba.setId(1L);
+        VezbaResponse response = new VezbaResponse();
+        response.setId(1L);
+        when(vezbaRepository.findById(1L)).thenReturn(Optional.of(vezba));
+        when(vezbaMapper.toVezbaResponse(vezba)).thenReturn(response);
+
+        assertSame(response, vezbaService.getVezbaById(1L));
+        assertSame(response, vezbaService.getVezbaById(1L));
+
+        verify(vezbaRepository, times(1)).findById(1L);
+        CacheStats stats = ((CaffeineCache) cacheManager.getCache(CacheConfig.VEZBE)).getNativeCache().stats();
+        assertEquals(1, stats.hitCount());
+    }
+}
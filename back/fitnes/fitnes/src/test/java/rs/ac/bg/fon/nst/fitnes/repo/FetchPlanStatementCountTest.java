@@ -0,0 +1,270 @@
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
+import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
+import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.PlanTreninga;
+import rs.ac.bg.fon.nst.fitnes.domain.PlanVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.Role;
+import rs.ac.bg.fon.nst.fitnes.domain.StavkaDnevnika;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.FitnesDnevnikResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisaniPlanResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaGenerationRequest;
+import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaResponse;
+import rs.ac.bg.fon.nst.fitnes.mapper.PlanTreningaMapper;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.security.TokenRevocationStore;
+import rs.ac.bg.fon.nst.fitnes.security.UserStatusVerifier;
+import rs.ac.bg.fon.nst.fitnes.service.FitnesDnevnikService;
+import rs.ac.bg.fon.nst.fitnes.service.GrupaMisicaService;
+import rs.ac.bg.fon.nst.fitnes.service.PlanTreningaService;
+import rs.ac.bg.fon.nst.fitnes.service.UserService;
+import rs.ac.bg.fon.nst.fitnes.service.auth.RefreshTokenService;
+import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
+import rs.ac.bg.fon.nst.fitnes.service.plan.UravnotezeniPlanGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Broj SQL naredbi po endpoint-u ne sme da raste sa brojem vezbi, stavki ili planova.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PlanTreningaService.class, UravnotezeniPlanGenerator.class, FitnesDnevnikService.class, GrupaMisicaService.class, UserService.class,
+        FetchPlanStatementCountTest.Mappers.class})
+class FetchPlanStatementCountTest {
+
+    @TestConfiguration
+    @ComponentScan(basePackageClasses = PlanTreningaMapper.class)
+    static class Mappers {
+    }
+
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+    @MockitoBean
+    private FileStorageService fileStorageService;
+    @MockitoBean
+    private UserStatusVerifier userStatusVerifier;
+    @MockitoBean
+    private TokenRevocationStore tokenRevocationStore;
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlanTreningaService planTreningaService;
+    @Autowired
+    private FitnesDnevnikService fitnesDnevnikService;
+    @Autowired
+    private GrupaMisicaService grupaMisicaService;
+    @Autowired
+    private UserService userService;
+
+    private Statistics statistics;
+    private Integer vezbacId;
+    private Long planId;
+    private Long dnevnikId;
+    private Long grupaId;
+    private Long kategorijaId;
+
+    @BeforeEach
+    void setUp() {
+        User vezbac = new User();
+        vezbac.setEmail("vezbac@example.com");
+        vezbac.setPassword("hash");
+        Role role = new Role("VEZBAC");
+        role.setUser(vezbac);
+        vezbac.setRole(role);
+        em.persist(vezbac);
+        vezbacId = vezbac.getId();
+
+        List<KategorijaVezbe> kategorije = new ArrayList<>();
+        for (String naziv : List.of("Snaga", "Kardio", "Mobilnost")) {
+            KategorijaVezbe kategorija = new KategorijaVezbe();
+            kategorija.setNaziv(naziv);
+            kategorije.add(em.persist(kategorija));
+        }
+
+        kategorijaId = kategorije.get(0).getId();
+
+        List<Vezba> vezbe = new ArrayList<>();
+        for (String nazivGrupe : List.of("Grudi", "Leđa")) {
+            GrupaMisica grupa = new GrupaMisica();
+            grupa.setNaziv(nazivGrupe);
+            em.persist(grupa);
+            grupaId = grupa.getId();
+            for (int i = 0; i < 4; i++) {
+                Vezba vezba = new Vezba();
+                vezba.setNaziv(nazivGrupe + " " + i);
+                vezba.setGrupaMisica(grupa);
+                vezba.setKategorija(kategorije.get(i % kategorije.size()));
+                vezbe.add(em.persist(vezba));
+            }
+        }
+
+        for (int p = 0; p < 3; p++) {
+            PlanTreninga plan = new PlanTreninga();
+            plan.setNaziv("Plan " + p);
+            plan.setVezbac(vezbac);
+            em.persist(plan);
+            planId = plan.getId();
+            for (int i = 0; i < 4; i++) {
+                PlanVezbe planVezbe = new PlanVezbe();
+                planVezbe.setPlanTreninga(plan);
+                planVezbe.setVezba(vezbe.get((p + i * 2) % vezbe.size()));
+                planVezbe.setBrojSerija(3);
+                planVezbe.setBrojPonavljanja(10);
+                em.persist(planVezbe);
+            }
+
+            FitnesDnevnik dnevnik = new FitnesDnevnik();
+            dnevnik.setNaziv("Dnevnik " + p);
+            dnevnik.setVezbac(vezbac);
+            em.persist(dnevnik);
+            dnevnikId = dnevnik.getId();
+            for (int i = 0; i < 3; i++) {
+                StavkaDnevnika stavka = new StavkaDnevnika();
+                stavka.setDnevnik(dnevnik);
+                stavka.setDatum(LocalDate.now().minusDays(i));
+                stavka.setNazivAktivnosti("Trening " + i);
+                em.persist(stavka);
+            }
+        }
+
+        // Sve naredne citanje ide iz baze, ne iz persistence context-a
+        em.flush();
+        em.clear();
+
+        when(currentUserResolver.getUserId()).thenReturn(vezbacId);
+        when(currentUserResolver.getUserReference())
+                .thenAnswer(invocation -> em.getEntityManager().getReference(User.class, vezbacId));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetPlanTreningaById_TwoStatements() {
+        PlanTreningaResponse response = planTreningaService.getPlanTreningaById(planId);
+
+        assertEquals(4, response.getPlanoviVezbi().size());
+        assertNotNull(response.getPlanoviVezbi().get(0).getVezba().getKategorija().getNaziv());
+        // plan sa stavkama + projekcija vezbi
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Vezba.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testGetAllPlanoviTreninga_ConstantStatementsPerPage() {
+        List<PlanTreningaResponse> planovi = planTreningaService.getAllPlanoviTreninga(0, 10).getContent();
+
+        assertEquals(3, planovi.size());
+        planovi.forEach(plan -> assertEquals(4, plan.getPlanoviVezbi().size()));
+        // stranica + batch za planove vezbi + projekcija vezbi svih planova
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Vezba.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testGetDnevnikById_SingleStatement() {
+        FitnesDnevnikResponse response = fitnesDnevnikService.getDnevnikById(dnevnikId);
+
+        assertEquals(3, response.getStavkeDnevnika().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetLoggedInUserDnevnici_ConstantStatementsPerPage() {
+        List<FitnesDnevnikResponse> dnevnici = userService.getLoggedInUserDnevnici(0, 10).getContent();
+
+        assertEquals(3, dnevnici.size());
+        dnevnici.forEach(dnevnik -> assertEquals(3, dnevnik.getStavkeDnevnika().size()));
+        // stranica + batch za stavke
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetAllGrupeMisica_TwoStatements() {
+        List<GrupaMisicaResponse> grupe = grupaMisicaService.getAllGrupeMisica();
+
+        assertEquals(2, grupe.size());
+        grupe.forEach(grupa -> assertEquals(4, grupa.getVezbe().size()));
+        // grupe + projekcija vezbi svih grupa
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Vezba.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testGetGrupaMisicaById_SingleStatement() {
+        GrupaMisicaResponse grupa = grupaMisicaService.getGrupaMisicaById(grupaId, Optional.empty());
+
+        assertEquals(4, grupa.getVezbe().size());
+        assertNotNull(grupa.getNaziv());
+        // grupa i vezbe sa kategorijama u istom upitu
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Vezba.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testGetGrupaMisicaById_CategoryFilter_SingleStatement() {
+        GrupaMisicaResponse grupa = grupaMisicaService.getGrupaMisicaById(grupaId, Optional.of(kategorijaId));
+
+        assertEquals(2, grupa.getVezbe().size());
+        grupa.getVezbe().forEach(vezba -> assertEquals(kategorijaId, vezba.getKategorija().getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetGrupaMisicaById_NoMatchingExercises_ReturnsGroup() {
+        GrupaMisicaResponse grupa = grupaMisicaService.getGrupaMisicaById(grupaId, Optional.of(-1L));
+
+        assertEquals(grupaId, grupa.getId());
+        assertTrue(grupa.getVezbe().isEmpty());
+    }
+
+    @Test
+    void testGeneratePersonalizedPlan_BatchedInserts() {
+        PlanTreningaGenerationRequest request = new PlanTreningaGenerationRequest();
+        request.setNazivPlana("Mesecni plan");
+        request.setCilj("Hipertrofija");
+        request.setBrojDana(30);
+        request.setGrupeMisica(List.of("Grudi", "Leđa"));
+
+        GenerisaniPlanResponse response = planTreningaService.generatePersonalizedPlan(request);
+        em.flush();
+
+        assertEquals(30, response.getPlanovi().size());
+        assertEquals(30, statistics.getEntityStatistics(PlanTreninga.class.getName()).getInsertCount());
+        assertEquals(210, statistics.getEntityStatistics(PlanVezbe.class.getName()).getInsertCount());
+        // kandidati + insert planova + insert stavki (u batch-evima) + projekcija vezbi;
+        // blokovi id-eva idu kroz posebnu vezu i dohvataju se jednom po tabeli
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
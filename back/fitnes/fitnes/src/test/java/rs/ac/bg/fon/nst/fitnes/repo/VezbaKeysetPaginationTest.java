@@ -0,0 +1,124 @@
+package rs.ac.bg.fon.nst.fitnes.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
+import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
+import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaPageResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+import rs.ac.bg.fon.nst.fitnes.mapper.VezbaMapper;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.VezbaService;
+import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogFacetIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSuggestIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({VezbaService.class, VezbaSearchIndex.class, KatalogSuggestIndex.class, KatalogFacetIndex.class,
+        VezbaKeysetPaginationTest.Mappers.class})
+class VezbaKeysetPaginationTest {
+
+    @TestConfiguration
+    @ComponentScan(basePackageClasses = VezbaMapper.class)
+    static class Mappers {
+    }
+
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+    @MockitoBean
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private VezbaService vezbaService;
+
+    private GrupaMisica grudi;
+    private KategorijaVezbe snaga;
+
+    @BeforeEach
+    void setUp() {
+        snaga = new KategorijaVezbe();
+        snaga.setNaziv("Snaga");
+        em.persist(snaga);
+        KategorijaVezbe kardio = new KategorijaVezbe();
+        kardio.setNaziv("Kardio");
+        em.persist(kardio);
+
+        grudi = new GrupaMisica();
+        grudi.setNaziv("Grudi");
+        em.persist(grudi);
+        GrupaMisica noge = new GrupaMisica();
+        noge.setNaziv("Noge");
+        em.persist(noge);
+
+        // isti nazivi u vise redova, da bi id razresavao redosled
+        String[] nazivi = {"Bench press", "bench press", "Sklekovi", "Razvlacenje", "Pullover", "Bench 100%", "Dips"};
+        for (int i = 0; i < 21; i++) {
+            Vezba vezba = new Vezba();
+            vezba.setNaziv(nazivi[i % nazivi.length]);
+            vezba.setGrupaMisica(i % 3 == 0 ? noge : grudi);
+            vezba.setKategorija(i % 2 == 0 ? snaga : kardio);
+            em.persist(vezba);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testGetVezbe_WalkingCursors_ReturnsEveryRowOnceInKeysetOrder() {
+        List<VezbaSummary> sve = new ArrayList<>();
+        String cursor = null;
+        do {
+            VezbaPageResponse page = vezbaService.getVezbe(grudi.getId(), null, null, null, cursor, 4);
+            assertTrue(page.getContent().size() <= 4);
+            sve.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(14, sve.size());
+        assertEquals(14, sve.stream().map(VezbaSummary::getId).distinct().count());
+        for (int i = 1; i < sve.size(); i++) {
+            String prethodni = sve.get(i - 1).getNaziv().toLowerCase();
+            String trenutni = sve.get(i).getNaziv().toLowerCase();
+            int poredjenje = prethodni.compareTo(trenutni);
+            assertTrue(poredjenje < 0 || (poredjenje == 0 && sve.get(i - 1).getId() < sve.get(i).getId()));
+        }
+    }
+
+    @Test
+    void testGetVezbe_NamePrefixIsCaseInsensitiveAndEscaped() {
+        VezbaPageResponse bench = vezbaService.getVezbe(null, null, null, "  BENCH ", null, 100);
+        VezbaPageResponse procenat = vezbaService.getVezbe(null, null, null, "bench 100%", null, 100);
+        VezbaPageResponse dzoker = vezbaService.getVezbe(null, null, null, "%", null, 100);
+
+        assertEquals(9, bench.getContent().size());
+        assertEquals(3, procenat.getContent().size());
+        assertTrue(dzoker.getContent().isEmpty());
+    }
+
+    @Test
+    void testGetVezbe_CombinedFilters() {
+        VezbaPageResponse page = vezbaService.getVezbe(grudi.getId(), snaga.getId(), null, null, null, 100);
+
+        assertFalse(page.isHasNext());
+        assertEquals(7, page.getContent().size());
+        page.getContent().forEach(vezba -> assertEquals("Snaga", vezba.getKategorija().getNaziv()));
+    }
+}
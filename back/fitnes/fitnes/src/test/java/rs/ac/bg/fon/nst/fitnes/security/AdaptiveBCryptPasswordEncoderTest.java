@@ -0,0 +1,42 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void testUpgradeEncoding_CheaperAndMoreExpensiveHashes() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("lozinka")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("lozinka")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("lozinka")));
+        assertFalse(encoder.upgradeEncoding("nije-bcrypt"));
+    }
+
+    @Test
+    void testMatches_HashWithDifferentStrength() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.matches("lozinka", new BCryptPasswordEncoder(4).encode("lozinka")));
+    }
+
+    @Test
+    void testStrengthFor_ExtrapolatesAndClamps() {
+        // 8 -> 10 ms, svaki korak duplira: 40 ms je cena 10
+        assertEquals(10, AdaptiveBCryptPasswordEncoder.strengthFor(40, 10, 4, 16));
+        assertEquals(6, AdaptiveBCryptPasswordEncoder.strengthFor(40, 160, 4, 16));
+        assertEquals(10, AdaptiveBCryptPasswordEncoder.strengthFor(1, 10, 10, 16));
+        assertEquals(16, AdaptiveBCryptPasswordEncoder.strengthFor(1_000_000, 1, 4, 16));
+    }
+
+    @Test
+    void testCalibrated_StaysWithinBounds() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(1, 4, 6);
+
+        assertTrue(encoder.getStrength() >= 4 && encoder.getStrength() <= 6);
+    }
+}
@@ -0,0 +1,95 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import rs.ac.bg.fon.nst.fitnes.exception.ServiceBusyException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatches_DelegateAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(null), 1, 1, 2, meterRegistry);
+
+        assertEquals("{plain}lozinka", encoder.encode("lozinka"));
+        assertTrue(encoder.matches("lozinka", "{plain}lozinka"));
+        assertFalse(encoder.matches("pogresna", "{plain}lozinka"));
+
+        assertEquals(1, meterRegistry.get("auth.password.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hash.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testEncode_PoolAndQueueFull_RejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(release), 1, 1, 3, meterRegistry);
+
+        // jedan zadatak se izvrsava, drugi ceka u redu
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        waitUntil(() -> meterRegistry.get("auth.password.hash.active").gauge().value() == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitUntil(() -> meterRegistry.get("auth.password.hash.queue").gauge().value() == 1);
+
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("{plain}b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Uslov nije ispunjen na vreme");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+
+        private final CountDownLatch release;
+
+        PlainEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return ("{plain}" + rawPassword).equals(encodedPassword);
+        }
+    }
+}
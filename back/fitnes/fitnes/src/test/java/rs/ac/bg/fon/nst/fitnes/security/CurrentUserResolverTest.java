@@ -0,0 +1,74 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
+import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetUserId_FromPrincipal_NoDatabaseLookup() {
+        UserPrincipal principal = new UserPrincipal(5, "vezbac@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_VEZBAC")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        User reference = new User();
+        reference.setId(5);
+        when(userRepository.getReferenceById(5)).thenReturn(reference);
+
+        CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+        assertEquals(5, resolver.getUserId());
+        assertSame(reference, resolver.getUserReference());
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void testGetUserId_WithoutId_FallsBackToEmailOnce() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("trener@example.com", null,
+                        List.of(new SimpleGrantedAuthority("ROLE_TRENER"))));
+        User user = new User();
+        user.setId(8);
+        user.setEmail("trener@example.com");
+        when(userRepository.findByEmail("trener@example.com")).thenReturn(Optional.of(user));
+
+        CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+        assertEquals(8, resolver.getUserId());
+        assertSame(user, resolver.getUserReference());
+        verify(userRepository, times(1)).findByEmail("trener@example.com");
+        verify(userRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void testGetUserId_NotAuthenticated_Throws() {
+        CurrentUserResolver resolver = new CurrentUserResolver(userRepository);
+
+        assertThrows(UnauthorizedAccessException.class, resolver::getUserId);
+        verifyNoInteractions(userRepository);
+    }
+}
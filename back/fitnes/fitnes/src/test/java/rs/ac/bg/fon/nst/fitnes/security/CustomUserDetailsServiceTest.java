@@ -0,0 +1,44 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import rs.ac.bg.fon.nst.fitnes.domain.Role;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void testUpdatePassword_SavesNewHash() {
+        User user = new User();
+        user.setId(1);
+        user.setEmail("vezbac@example.com");
+        user.setPassword("$2a$04$stari");
+        Role role = new Role("VEZBAC");
+        role.setUser(user);
+        user.setRole(role);
+        when(userRepository.findByEmail("vezbac@example.com")).thenReturn(Optional.of(user));
+
+        UserDetails result = customUserDetailsService.updatePassword(UserPrincipal.fromUser(user), "$2a$12$novi");
+
+        assertEquals("$2a$12$novi", result.getPassword());
+        assertEquals("$2a$12$novi", user.getPassword());
+        verify(userRepository, times(1)).save(user);
+    }
+}
@@ -0,0 +1,66 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "Yilcotc52AEeg/gMUCWMIyjrulxu/219hcmaunc4EuUr8lhk92U6JvS67VBHA6d9VDsKNkxRzzW2+cpSo9pjLQ==";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 60000);
+
+        UserPrincipal principal = new UserPrincipal(7, "vezbac@example.com", "encoded",
+                List.of(new SimpleGrantedAuthority("ROLE_VEZBAC")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @Test
+    void testGenerateToken_ContainsUserIdAndRoles() {
+        String token = jwtTokenProvider.generateToken(authentication);
+
+        Claims claims = jwtTokenProvider.parseClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("vezbac@example.com", claims.getSubject());
+        assertEquals(7, claims.get(JwtTokenProvider.CLAIM_USER_ID, Integer.class));
+        assertEquals("ROLE_VEZBAC", claims.get(JwtTokenProvider.CLAIM_ROLES, String.class));
+        assertNotNull(claims.getId());
+        assertNotEquals(claims.getId(), jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(authentication)).getId());
+    }
+
+    @Test
+    void testParseClaims_TamperedToken_ReturnsNull() {
+        String token = jwtTokenProvider.generateToken(authentication);
+        int position = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertNull(jwtTokenProvider.parseClaims(tampered));
+    }
+
+    @Test
+    void testParseClaims_ExpiredToken_ReturnsNull() {
+        JwtTokenProvider expiredProvider = new JwtTokenProvider(SECRET, -1000);
+        String token = expiredProvider.generateToken(authentication);
+
+        assertNull(jwtTokenProvider.parseClaims(token));
+    }
+
+    @Test
+    void testParseClaims_Malformed_ReturnsNull() {
+        assertNull(jwtTokenProvider.parseClaims("nije.jwt.token"));
+    }
+}
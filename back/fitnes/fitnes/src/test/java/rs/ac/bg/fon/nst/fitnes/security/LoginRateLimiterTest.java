@@ -0,0 +1,103 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.domain.LoginBlock;
+import rs.ac.bg.fon.nst.fitnes.exception.TooManyRequestsException;
+import rs.ac.bg.fon.nst.fitnes.repo.LoginBlockRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+    @Mock
+    private LoginBlockRepository loginBlockRepository;
+
+    @Test
+    void testCheckLogin_EmailLimitExceeded_ThrowsWithRetryAfter() {
+        LoginRateLimiter limiter = new LoginRateLimiter(loginBlockRepository, 100, 60, 3, 300, 1000, false);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("10.0.0." + i, "Vezbac@Example.com");
+        }
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLogin("10.0.0.9", "vezbac@example.com "));
+
+        assertTrue(ex.getRetryAfterSeconds() >= 1 && ex.getRetryAfterSeconds() <= 100);
+        assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.9", "drugi@example.com"));
+        verifyNoInteractions(loginBlockRepository);
+    }
+
+    @Test
+    void testCheckRegister_IpLimitExceeded_Throws() {
+        LoginRateLimiter limiter = new LoginRateLimiter(loginBlockRepository, 2, 60, 5, 300, 1000, false);
+
+        limiter.checkRegister("10.0.0.1");
+        limiter.checkRegister("10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkRegister("10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkRegister("10.0.0.2"));
+    }
+
+    @Test
+    void testBucket_ConcurrentAcquire_AdmitsExactlyLimit() throws InterruptedException {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket(50, 3_600_000);
+        long now = System.currentTimeMillis();
+        AtomicInteger admitted = new AtomicInteger();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.tryAcquire("ip:10.0.0.1", now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(50, admitted.get());
+    }
+
+    @Test
+    void testBucket_Evict_DropsRefilledKeys() {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket(5, 5000);
+
+        bucket.tryAcquire("ip:a", 0);
+        bucket.tryAcquire("ip:b", 0);
+        bucket.evict(10_000, 100);
+
+        assertEquals(0, bucket.size());
+    }
+
+    @Test
+    void testShared_BlockIsPersistedAndLoadedOnSync() {
+        LoginRateLimiter limiter = new LoginRateLimiter(loginBlockRepository, 1, 60, 5, 300, 1000, true);
+        when(loginBlockRepository.findByThrottleKey("ip:10.0.0.1")).thenReturn(Optional.empty());
+
+        limiter.checkRegister("10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkRegister("10.0.0.1"));
+        verify(loginBlockRepository).save(any(LoginBlock.class));
+
+        LoginRateLimiter other = new LoginRateLimiter(loginBlockRepository, 1, 60, 5, 300, 1000, true);
+        when(loginBlockRepository.findByBlockedUntilGreaterThan(anyLong())).thenReturn(
+                List.of(new LoginBlock(1L, "ip:10.0.0.1", System.currentTimeMillis() + 60_000)));
+        other.sync();
+
+        assertThrows(TooManyRequestsException.class, () -> other.checkRegister("10.0.0.1"));
+    }
+}
@@ -0,0 +1,97 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.domain.RevokedToken;
+import rs.ac.bg.fon.nst.fitnes.repo.RevokedTokenRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+
+    private static final long LIFETIME = 60000;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    void testRevokeToken_OnlyThatTokenIsRevoked() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, LIFETIME, false);
+        long now = System.currentTimeMillis();
+
+        store.revokeToken("jti-1", now + LIFETIME);
+
+        assertTrue(store.isRevoked("jti-1", 1, now));
+        assertFalse(store.isRevoked("jti-2", 1, now));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void testRevokeAllForUser_RevokesTokensIssuedBefore() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, LIFETIME, false);
+        long now = System.currentTimeMillis();
+
+        store.revokeAllForUser(5);
+
+        assertTrue(store.isRevoked("jti-1", 5, now - 1000));
+        assertFalse(store.isRevoked("jti-1", 6, now - 1000));
+        assertFalse(store.isRevoked("jti-1", 5, now + 2000));
+    }
+
+    @Test
+    void testSync_KeepsLiveEntries_IgnoresExpiredToken() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, LIFETIME, false);
+        long now = System.currentTimeMillis();
+        store.revokeToken("jti-1", now + 50);
+
+        store.sync();
+        assertTrue(store.isRevoked("jti-1", null, now));
+
+        store.revokeToken("jti-2", now - 1);
+        assertFalse(store.isRevoked("jti-2", null, now));
+    }
+
+    @Test
+    void testShared_WritesAndReadsRevocations() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, LIFETIME, true);
+        long now = System.currentTimeMillis();
+        RevokedToken sDrugeInstance = new RevokedToken(7L, "jti-remote", null, null, now + LIFETIME, null);
+        when(revokedTokenRepository.findByExpiresAtGreaterThan(anyLong())).thenReturn(List.of(sDrugeInstance));
+
+        store.revokeToken("jti-local", now + LIFETIME);
+        store.sync();
+
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, times(1)).deleteExpired(anyLong());
+        assertTrue(store.isRevoked("jti-remote", null, now));
+        assertTrue(store.isRevoked("jti-local", null, now));
+    }
+
+    @Test
+    void testShared_RowCommittedOutOfIdOrderIsStillApplied() {
+        TokenRevocationStore store = new TokenRevocationStore(revokedTokenRepository, LIFETIME, true);
+        long now = System.currentTimeMillis();
+        // id 7 je dodeljen u dugoj transakciji brisanja naloga, a odjava sa id 8 je commit-ovana pre nje
+        RevokedToken odjava = new RevokedToken(8L, "jti-odjava", null, null, now + LIFETIME, null);
+        RevokedToken brisanje = new RevokedToken(7L, null, 5, now, now + LIFETIME, null);
+        when(revokedTokenRepository.findByExpiresAtGreaterThan(anyLong()))
+                .thenReturn(List.of(odjava))
+                .thenReturn(List.of(brisanje, odjava));
+
+        store.sync();
+        assertTrue(store.isRevoked("jti-odjava", null, now));
+        assertFalse(store.isRevoked("jti-1", 5, now - 1000));
+
+        store.sync();
+        assertTrue(store.isRevoked("jti-1", 5, now - 1000));
+        assertTrue(store.isRevoked("jti-odjava", null, now));
+    }
+}
@@ -0,0 +1,69 @@
+package rs.ac.bg.fon.nst.fitnes.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusVerifierTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void testIsCurrent_QueriesDatabaseOncePerInterval() {
+        UserStatusVerifier verifier = new UserStatusVerifier(userRepository, 60000, 100);
+        when(userRepository.findRoleByUserId(1)).thenReturn(Optional.of("VEZBAC"));
+
+        assertTrue(verifier.isCurrent(1, "ROLE_VEZBAC"));
+        assertTrue(verifier.isCurrent(1, "ROLE_VEZBAC"));
+        assertTrue(verifier.isCurrent(1, "ROLE_VEZBAC"));
+
+        verify(userRepository, times(1)).findRoleByUserId(1);
+    }
+
+    @Test
+    void testIsCurrent_DeletedUser_ReturnsFalse() {
+        UserStatusVerifier verifier = new UserStatusVerifier(userRepository, 60000, 100);
+        when(userRepository.findRoleByUserId(2)).thenReturn(Optional.empty());
+
+        assertFalse(verifier.isCurrent(2, "ROLE_TRENER"));
+    }
+
+    @Test
+    void testIsCurrent_ChangedRole_ReturnsFalse() {
+        UserStatusVerifier verifier = new UserStatusVerifier(userRepository, 60000, 100);
+        when(userRepository.findRoleByUserId(3)).thenReturn(Optional.of("VEZBAC"));
+
+        assertFalse(verifier.isCurrent(3, "ROLE_ADMIN"));
+    }
+
+    @Test
+    void testInvalidate_ForcesNewCheck() {
+        UserStatusVerifier verifier = new UserStatusVerifier(userRepository, 60000, 100);
+        when(userRepository.findRoleByUserId(4)).thenReturn(Optional.of("TRENER"), Optional.empty());
+
+        assertTrue(verifier.isCurrent(4, "ROLE_TRENER"));
+        verifier.invalidate(4);
+        assertFalse(verifier.isCurrent(4, "ROLE_TRENER"));
+
+        verify(userRepository, times(2)).findRoleByUserId(4);
+    }
+
+    @Test
+    void testOnKorisnikObrisan_ForcesNewCheck() {
+        UserStatusVerifier verifier = new UserStatusVerifier(userRepository, 60000, 100);
+        when(userRepository.findRoleByUserId(5)).thenReturn(Optional.of("VEZBAC"), Optional.empty());
+
+        assertTrue(verifier.isCurrent(5, "ROLE_VEZBAC"));
+        verifier.onKorisnikObrisan(new KorisnikObrisanEvent(5));
+        assertFalse(verifier.isCurrent(5, "ROLE_VEZBAC"));
+    }
+}
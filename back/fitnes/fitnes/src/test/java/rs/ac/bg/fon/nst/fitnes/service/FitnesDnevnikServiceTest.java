@@ -5,11 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
 import rs.ac.bg.fon.nst.fitnes.domain.StavkaDnevnika;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
@@ -23,7 +19,7 @@ import rs.ac.bg.fon.nst.fitnes.mapper.FitnesDnevnikMapper;
 import rs.ac.bg.fon.nst.fitnes.mapper.StavkaDnevnikaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.FitnesDnevnikRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.StavkaDnevnikaRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
 
 import java.time.LocalDate;
 import java.util.Collections;
@@ -46,17 +42,13 @@ class FitnesDnevnikServiceTest {
     @Mock
     private StavkaDnevnikaRepository stavkaDnevnikaRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private FitnesDnevnikMapper fitnesDnevnikMapper;
     @Mock
     private StavkaDnevnikaMapper stavkaDnevnikaMapper;
 
    
     @Mock
-    private SecurityContext securityContext;
-    @Mock
-    private Authentication authentication;
+    private CurrentUserResolver currentUserResolver;
 
     private User authenticatedUser;
     private User otherUser;
@@ -105,141 +97,118 @@ class FitnesDnevnikServiceTest {
 
    
     private void mockAuthenticatedUser() {
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(authenticatedUser.getEmail());
-        when(userRepository.findByEmail(authenticatedUser.getEmail())).thenReturn(Optional.of(authenticatedUser));
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.getUserId()).thenReturn(authenticatedUser.getId());
+        lenient().when(currentUserResolver.getUserReference()).thenReturn(authenticatedUser);
     }
     
    
 
     @Test
     void testGetDnevnikById_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
            
-            fitnesDnevnik.setStavkeDnevnika(new ArrayList<>(List.of(
-                new StavkaDnevnika(1L, fitnesDnevnik, LocalDate.of(2023, 1, 2), "Druga aktivnost", "Komentar 2", null, null),
-                new StavkaDnevnika(2L, fitnesDnevnik, LocalDate.of(2023, 1, 1), "Prva aktivnost", "Komentar 1", null, null)
-            )));
+        fitnesDnevnik.setStavkeDnevnika(new ArrayList<>(List.of(
+            new StavkaDnevnika(1L, fitnesDnevnik, LocalDate.of(2023, 1, 2), "Druga aktivnost", "Komentar 2", null, null),
+            new StavkaDnevnika(2L, fitnesDnevnik, LocalDate.of(2023, 1, 1), "Prva aktivnost", "Komentar 1", null, null)
+        )));
 
-            when(fitnesDnevnikRepository.findById(101L)).thenReturn(Optional.of(fitnesDnevnik));
-            when(fitnesDnevnikMapper.toFitnesDnevnikResponse(any(FitnesDnevnik.class))).thenReturn(dnevnikResponse);
+        when(fitnesDnevnikRepository.findByIdAndVezbacId(101L, 1)).thenReturn(Optional.of(fitnesDnevnik));
+        when(fitnesDnevnikMapper.toFitnesDnevnikResponse(any(FitnesDnevnik.class))).thenReturn(dnevnikResponse);
 
-            FitnesDnevnikResponse result = fitnesDnevnikService.getDnevnikById(101L);
+        FitnesDnevnikResponse result = fitnesDnevnikService.getDnevnikById(101L);
 
-            assertNotNull(result);
-            assertEquals(101L, result.getId());
-            verify(fitnesDnevnikRepository, times(1)).findById(101L);
-            verify(fitnesDnevnikMapper, times(1)).toFitnesDnevnikResponse(fitnesDnevnik);
+        assertNotNull(result);
+        assertEquals(101L, result.getId());
+        verify(fitnesDnevnikRepository, times(1)).findByIdAndVezbacId(101L, 1);
+        verify(fitnesDnevnikRepository, never()).existsById(any());
+        verify(fitnesDnevnikMapper, times(1)).toFitnesDnevnikResponse(fitnesDnevnik);
            
-            assertEquals("Druga aktivnost", fitnesDnevnik.getStavkeDnevnika().get(0).getNazivAktivnosti());
-        }
+        assertEquals("Druga aktivnost", fitnesDnevnik.getStavkeDnevnika().get(0).getNazivAktivnosti());
     }
 
     @Test
     void testGetDnevnikById_UnauthorizedAccess() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            FitnesDnevnik otherUserDnevnik = new FitnesDnevnik();
-            otherUserDnevnik.setVezbac(otherUser);
+        when(fitnesDnevnikRepository.findByIdAndVezbacId(102L, 1)).thenReturn(Optional.empty());
+        when(fitnesDnevnikRepository.existsById(102L)).thenReturn(true);
 
-            when(fitnesDnevnikRepository.findById(102L)).thenReturn(Optional.of(otherUserDnevnik));
-
-            assertThrows(UnauthorizedAccessException.class, () -> fitnesDnevnikService.getDnevnikById(102L));
-        }
+        assertThrows(UnauthorizedAccessException.class, () -> fitnesDnevnikService.getDnevnikById(102L));
     }
 
     @Test
     void testGetDnevnikById_NotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(fitnesDnevnikRepository.findById(999L)).thenReturn(Optional.empty());
+        when(fitnesDnevnikRepository.findByIdAndVezbacId(999L, 1)).thenReturn(Optional.empty());
+        when(fitnesDnevnikRepository.existsById(999L)).thenReturn(false);
 
-            ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> fitnesDnevnikService.getDnevnikById(999L));
-            assertEquals("Dnevnik nije pronađen sa id : '999'", exception.getMessage());
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> fitnesDnevnikService.getDnevnikById(999L));
+        assertEquals("Dnevnik nije pronađen sa id : '999'", exception.getMessage());
 
-        }
     }
 
  
 
     @Test
     void testCreateDnevnik_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(fitnesDnevnikMapper.toFitnesDnevnik(dnevnikRequest)).thenReturn(fitnesDnevnik);
-            when(fitnesDnevnikRepository.save(fitnesDnevnik)).thenReturn(fitnesDnevnik);
-            when(fitnesDnevnikMapper.toFitnesDnevnikResponse(fitnesDnevnik)).thenReturn(dnevnikResponse);
+        when(fitnesDnevnikMapper.toFitnesDnevnik(dnevnikRequest)).thenReturn(fitnesDnevnik);
+        when(fitnesDnevnikRepository.save(fitnesDnevnik)).thenReturn(fitnesDnevnik);
+        when(fitnesDnevnikMapper.toFitnesDnevnikResponse(fitnesDnevnik)).thenReturn(dnevnikResponse);
 
-            FitnesDnevnikResponse result = fitnesDnevnikService.createDnevnik(dnevnikRequest);
+        FitnesDnevnikResponse result = fitnesDnevnikService.createDnevnik(dnevnikRequest);
 
-            assertNotNull(result);
-            assertEquals("Moj Dnevnik", result.getNaslov());
-            verify(fitnesDnevnikRepository, times(1)).save(fitnesDnevnik);
+        assertNotNull(result);
+        assertEquals("Moj Dnevnik", result.getNaslov());
+        verify(fitnesDnevnikRepository, times(1)).save(fitnesDnevnik);
          
-            assertEquals(authenticatedUser, fitnesDnevnik.getVezbac());
-        }
+        assertEquals(authenticatedUser, fitnesDnevnik.getVezbac());
     }
 
     
 
     @Test
     void testAddStavkaToDnevnik_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(fitnesDnevnikRepository.findById(101L)).thenReturn(Optional.of(fitnesDnevnik));
-            when(stavkaDnevnikaMapper.toStavkaDnevnika(stavkaRequest)).thenReturn(stavkaDnevnika);
-            when(stavkaDnevnikaRepository.save(stavkaDnevnika)).thenReturn(stavkaDnevnika);
-            when(stavkaDnevnikaMapper.toStavkaDnevnikaResponse(stavkaDnevnika)).thenReturn(stavkaResponse);
+        when(fitnesDnevnikRepository.existsByIdAndVezbacId(101L, 1)).thenReturn(true);
+        when(fitnesDnevnikRepository.getReferenceById(101L)).thenReturn(fitnesDnevnik);
+        when(stavkaDnevnikaMapper.toStavkaDnevnika(stavkaRequest)).thenReturn(stavkaDnevnika);
+        when(stavkaDnevnikaRepository.save(stavkaDnevnika)).thenReturn(stavkaDnevnika);
+        when(stavkaDnevnikaMapper.toStavkaDnevnikaResponse(stavkaDnevnika)).thenReturn(stavkaResponse);
 
-            StavkaDnevnikaResponse result = fitnesDnevnikService.addStavkaToDnevnik(101L, stavkaRequest);
+        StavkaDnevnikaResponse result = fitnesDnevnikService.addStavkaToDnevnik(101L, stavkaRequest);
 
-            assertNotNull(result);
-            assertEquals("Plivanje", result.getNazivAktivnosti());
-            verify(stavkaDnevnikaRepository, times(1)).save(stavkaDnevnika);
+        assertNotNull(result);
+        assertEquals("Plivanje", result.getNazivAktivnosti());
+        verify(stavkaDnevnikaRepository, times(1)).save(stavkaDnevnika);
          
-            assertEquals(fitnesDnevnik, stavkaDnevnika.getDnevnik());
-        }
+        assertEquals(fitnesDnevnik, stavkaDnevnika.getDnevnik());
+        verify(fitnesDnevnikRepository, never()).findById(any());
     }
 
     @Test
     void testAddStavkaToDnevnik_UnauthorizedAccess() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
-            FitnesDnevnik otherUserDnevnik = new FitnesDnevnik();
-            otherUserDnevnik.setId(102L);
-            otherUserDnevnik.setVezbac(otherUser);
+        mockAuthenticatedUser();
 
-            when(fitnesDnevnikRepository.findById(102L)).thenReturn(Optional.of(otherUserDnevnik));
+        when(fitnesDnevnikRepository.existsByIdAndVezbacId(102L, 1)).thenReturn(false);
+        when(fitnesDnevnikRepository.existsById(102L)).thenReturn(true);
 
-            assertThrows(UnauthorizedAccessException.class, () -> fitnesDnevnikService.addStavkaToDnevnik(102L, stavkaRequest));
-        }
+        assertThrows(UnauthorizedAccessException.class, () -> fitnesDnevnikService.addStavkaToDnevnik(102L, stavkaRequest));
+        verify(stavkaDnevnikaRepository, never()).save(any());
     }
 
     @Test
     void testAddStavkaToDnevnik_NotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(fitnesDnevnikRepository.findById(999L)).thenReturn(Optional.empty());
+        when(fitnesDnevnikRepository.existsByIdAndVezbacId(999L, 1)).thenReturn(false);
+        when(fitnesDnevnikRepository.existsById(999L)).thenReturn(false);
 
-            ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> fitnesDnevnikService.addStavkaToDnevnik(999L, stavkaRequest));
-            assertEquals("Dnevnik nije pronađen sa id : '999'", exception.getMessage());
-        }
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> fitnesDnevnikService.addStavkaToDnevnik(999L, stavkaRequest));
+        assertEquals("Dnevnik nije pronađen sa id : '999'", exception.getMessage());
     }
 }
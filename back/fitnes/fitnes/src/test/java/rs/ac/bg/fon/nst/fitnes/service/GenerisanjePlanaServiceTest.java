@@ -0,0 +1,174 @@
+package rs.ac.bg.fon.nst.fitnes.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.dto.GenerisanjeStatusResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.PlanTreningaGenerationRequest;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
+import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
+import rs.ac.bg.fon.nst.fitnes.exception.ServiceBusyException;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisanaStavka;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisaniRaspored;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerisanjePlanaServiceTest {
+
+    @Mock
+    private PlanTreningaService planTreningaService;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    private GenerisanjePlanaService service;
+    private PlanTreningaGenerationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        service = new GenerisanjePlanaService(planTreningaService, currentUserResolver, 1, 1, 14, 60);
+        request = new PlanTreningaGenerationRequest();
+        request.setNazivPlana("Godisnji plan");
+        request.setGrupeMisica(List.of("Grudi"));
+        request.setBrojDana(30);
+        lenient().when(currentUserResolver.getUserId()).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testPokreni_SavesPlanInChunks() throws Exception {
+        when(planTreningaService.pripremiRaspored(request)).thenReturn(raspored(30));
+        when(planTreningaService.sacuvajDeoRasporeda(eq(1), eq("Godisnji plan"), any(), anyList(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> ids(invocation.getArgument(4), invocation.getArgument(5)));
+
+        GenerisanjeStatusResponse pokrenut = service.pokreni(request);
+        assertEquals(30, pokrenut.getUkupnoDana());
+        assertEquals(42L, pokrenut.getSeed());
+
+        GenerisanjeStatusResponse status = sacekaj(pokrenut.getJobId());
+
+        assertEquals(GenerisanjePlanaService.ZAVRSEN, status.getStatus());
+        assertEquals(30, status.getSacuvanoDana());
+        assertEquals(ids(0, 30), status.getPlanIds());
+        assertNull(status.getGreska());
+        // tri transakcije: [0, 14), [14, 28), [28, 30)
+        verify(planTreningaService).sacuvajDeoRasporeda(eq(1), any(), any(), anyList(), eq(0), eq(14));
+        verify(planTreningaService).sacuvajDeoRasporeda(eq(1), any(), any(), anyList(), eq(14), eq(28));
+        verify(planTreningaService).sacuvajDeoRasporeda(eq(1), any(), any(), anyList(), eq(28), eq(30));
+    }
+
+    @Test
+    void testPokreni_FailedChunkKeepsSavedDays() throws Exception {
+        when(planTreningaService.pripremiRaspored(request)).thenReturn(raspored(30));
+        when(planTreningaService.sacuvajDeoRasporeda(anyInt(), any(), any(), anyList(), anyInt(), anyInt()))
+                .thenReturn(ids(0, 14))
+                .thenThrow(new IllegalStateException("baza nije dostupna"));
+
+        GenerisanjeStatusResponse status = sacekaj(service.pokreni(request).getJobId());
+
+        assertEquals(GenerisanjePlanaService.GRESKA, status.getStatus());
+        assertEquals(14, status.getSacuvanoDana());
+        assertEquals(ids(0, 14), status.getPlanIds());
+        assertNotNull(status.getGreska());
+        verify(planTreningaService, times(2)).sacuvajDeoRasporeda(anyInt(), any(), any(), anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testPokreni_ErrorStillEndsJob() throws Exception {
+        when(planTreningaService.pripremiRaspored(request)).thenReturn(raspored(30));
+        when(planTreningaService.sacuvajDeoRasporeda(anyInt(), any(), any(), anyList(), anyInt(), anyInt()))
+                .thenReturn(ids(0, 14))
+                .thenThrow(new OutOfMemoryError("test"));
+
+        GenerisanjeStatusResponse status = sacekaj(service.pokreni(request).getJobId());
+
+        assertEquals(GenerisanjePlanaService.GRESKA, status.getStatus());
+        assertEquals(ids(0, 14), status.getPlanIds());
+        assertNotNull(status.getGreska());
+    }
+
+    @Test
+    void testPokreni_TooManyDays() {
+        request.setBrojDana(GenerisanjePlanaService.MAX_DANA + 1);
+
+        assertThrows(InvalidRequestException.class, () -> service.pokreni(request));
+
+        verifyNoInteractions(planTreningaService);
+    }
+
+    @Test
+    void testPokreni_PoolAndQueueFull_RejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(planTreningaService.pripremiRaspored(request)).thenReturn(raspored(1));
+        when(planTreningaService.sacuvajDeoRasporeda(anyInt(), any(), any(), anyList(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return ids(0, 1);
+                });
+
+        // jedan posao radi, drugi ceka u redu
+        String prvi = service.pokreni(request).getJobId();
+        String drugi = service.pokreni(request).getJobId();
+        assertThrows(ServiceBusyException.class, () -> service.pokreni(request));
+
+        release.countDown();
+        assertEquals(GenerisanjePlanaService.ZAVRSEN, sacekaj(prvi).getStatus());
+        assertEquals(GenerisanjePlanaService.ZAVRSEN, sacekaj(drugi).getStatus());
+    }
+
+    @Test
+    void testGetStatus_OtherUsersJobNotFound() throws Exception {
+        when(planTreningaService.pripremiRaspored(request)).thenReturn(raspored(1));
+        when(planTreningaService.sacuvajDeoRasporeda(anyInt(), any(), any(), anyList(), anyInt(), anyInt()))
+                .thenReturn(ids(0, 1));
+        String jobId = service.pokreni(request).getJobId();
+        sacekaj(jobId);
+
+        when(currentUserResolver.getUserId()).thenReturn(2);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(jobId));
+        assertThrows(ResourceNotFoundException.class, () -> service.pratiNapredak(jobId));
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus("nepostojeci"));
+    }
+
+    private GenerisanjeStatusResponse sacekaj(String jobId) throws InterruptedException {
+        long rok = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < rok) {
+            GenerisanjeStatusResponse status = service.getStatus(jobId);
+            if (GenerisanjePlanaService.ZAVRSEN.equals(status.getStatus())
+                    || GenerisanjePlanaService.GRESKA.equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(5);
+        }
+        fail("Posao " + jobId + " nije zavrsen na vreme");
+        return null;
+    }
+
+    private static GenerisaniRaspored raspored(int brojDana) {
+        List<List<GenerisanaStavka>> dani = IntStream.range(0, brojDana)
+                .mapToObj(dan -> List.of(new GenerisanaStavka((long) dan + 1, 3, 10)))
+                .toList();
+        return new GenerisaniRaspored(42L, dani);
+    }
+
+    private static List<Long> ids(int od, int doDana) {
+        return LongStream.range(od, doDana).map(dan -> 1000 + dan).boxed().toList();
+    }
+}
@@ -5,11 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
 import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
@@ -17,15 +16,18 @@ import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
-import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.GrupaVezbaRed;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
 import rs.ac.bg.fon.nst.fitnes.dto.KategorijaVezbeResponse;
 import rs.ac.bg.fon.nst.fitnes.exception.DuplicateEntryException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.GrupaMisicaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.GrupaMisicaSacuvanaEvent;
 import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,17 +48,17 @@ class GrupaMisicaServiceTest {
     @Mock
     private GrupaMisicaRepository grupaMisicaRepository;
     @Mock
+    private VezbaRepository vezbaRepository;
+    @Mock
     private GrupaMisicaMapper grupaMisicaMapper;
     @Mock
     private FileStorageService fileStorageService;
-    @Mock
-    private UserRepository userRepository;
 
    
     @Mock
-    private SecurityContext securityContext;
+    private CurrentUserResolver currentUserResolver;
     @Mock
-    private Authentication authentication;
+    private ApplicationEventPublisher eventPublisher;
     @Mock
     private MultipartFile mockFile;
 
@@ -66,7 +68,7 @@ class GrupaMisicaServiceTest {
     private GrupaMisicaResponse grupaMisicaResponse;
     private Vezba vezba1, vezba2;
     private KategorijaVezbe kategorija1, kategorija2;
-    private VezbaResponse vezbaResponse1, vezbaResponse2;
+    private VezbaSummary vezbaSummary1, vezbaSummary2;
     private KategorijaVezbeResponse kategorijaVezbeResponse1, kategorijaVezbeResponse2;
 
     @BeforeEach
@@ -78,7 +80,7 @@ class GrupaMisicaServiceTest {
 
         grupaMisicaRequest = new GrupaMisicaRequest("Grudi", "Opis za grudi.");
 
-        grupaMisica = new GrupaMisica(1L, "Grudi", "Opis za grudi.", null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        grupaMisica = new GrupaMisica(1L, "Grudi", "grudi", "Opis za grudi.", null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
 
         grupaMisicaResponse = new GrupaMisicaResponse();
         grupaMisicaResponse.setId(1L);
@@ -86,83 +88,86 @@ class GrupaMisicaServiceTest {
         grupaMisicaResponse.setVezbe(new ArrayList<>());
 
 
-        kategorija1 = new KategorijaVezbe(10L, "Snaga", new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
-        kategorija2 = new KategorijaVezbe(20L, "Kardio", new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        kategorija1 = new KategorijaVezbe(10L, "Snaga", "snaga", new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        kategorija2 = new KategorijaVezbe(20L, "Kardio", "kardio", new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
 
-        vezba1 = new Vezba(100L, "Bench Press", "Opis", "slika.jpg", "prsni misic", "savet", 4, 12, "video.mp4", grupaMisica, kategorija1, null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
-        vezba2 = new Vezba(200L, "Trčanje na traci", "Opis", "slika2.jpg", "noge", "savet", 3, 30, "video2.mp4", grupaMisica, kategorija2, null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        vezba1 = new Vezba(100L, "Bench Press", "bench press", "Opis", "slika.jpg", "prsni misic", "savet", 4, 12, "video.mp4", grupaMisica, kategorija1, null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        vezba2 = new Vezba(200L, "Trčanje na traci", "trčanje na traci", "Opis", "slika2.jpg", "noge", "savet", 3, 30, "video2.mp4", grupaMisica, kategorija2, null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
         grupaMisica.getVezbe().add(vezba1);
         grupaMisica.getVezbe().add(vezba2);
 
         kategorijaVezbeResponse1 = new KategorijaVezbeResponse(10L, "Snaga");
         kategorijaVezbeResponse2 = new KategorijaVezbeResponse(20L, "Kardio");
 
-        vezbaResponse1 = new VezbaResponse(100L, "Bench Press", "Opis", "slika.jpg", "prsni misic", "savet", 4, 12, "video.mp4", kategorijaVezbeResponse1);
-        vezbaResponse2 = new VezbaResponse(200L, "Trčanje na traci", "Opis", "slika2.jpg", "noge", "savet", 3, 30, "video2.mp4", kategorijaVezbeResponse2);
+        vezbaSummary1 = new VezbaSummary(100L, "Bench Press", "/uploads/slika.jpg", 4, 12, kategorijaVezbeResponse1, 1L);
+        vezbaSummary2 = new VezbaSummary(200L, "Trčanje na traci", "/uploads/slika2.jpg", 3, 30, kategorijaVezbeResponse2, 1L);
     }
 
   
     private void mockAuthenticatedUser() {
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(authenticatedUser.getEmail());
-        when(userRepository.findByEmail(authenticatedUser.getEmail())).thenReturn(Optional.of(authenticatedUser));
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.getUserId()).thenReturn(authenticatedUser.getId());
+        lenient().when(currentUserResolver.getUserReference()).thenReturn(authenticatedUser);
     }
     
    
 
     @Test
     void testCreateGrupaMisica_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
             
-            when(grupaMisicaRepository.findAll()).thenReturn(Collections.emptyList());
+        when(grupaMisicaRepository.existsByNormalizovanNaziv("grudi")).thenReturn(false);
             
            
-            when(mockFile.isEmpty()).thenReturn(false);
-            when(fileStorageService.storeFile(any(MultipartFile.class), any(String.class))).thenReturn("grudi.jpg");
+        when(mockFile.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(any(MultipartFile.class), any(String.class))).thenReturn("grudi.jpg");
             
             
-            when(grupaMisicaMapper.toGrupaMisica(any(GrupaMisicaRequest.class))).thenReturn(grupaMisica);
-            when(grupaMisicaRepository.save(any(GrupaMisica.class))).thenReturn(grupaMisica);
-            when(grupaMisicaMapper.toGrupaMisicaResponse(any(GrupaMisica.class))).thenReturn(grupaMisicaResponse);
+        when(grupaMisicaMapper.toGrupaMisica(any(GrupaMisicaRequest.class))).thenReturn(grupaMisica);
+        when(grupaMisicaRepository.save(any(GrupaMisica.class))).thenReturn(grupaMisica);
+        when(grupaMisicaMapper.toGrupaMisicaResponse(any(GrupaMisica.class))).thenReturn(grupaMisicaResponse);
 
-            GrupaMisicaResponse result = grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile);
+        GrupaMisicaResponse result = grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile);
 
-            assertNotNull(result);
-            assertEquals("Grudi", result.getNaziv());
-            verify(grupaMisicaRepository, times(1)).save(grupaMisica);
-            verify(fileStorageService, times(1)).storeFile(mockFile, grupaMisicaRequest.getNaziv());
-        }
+        assertNotNull(result);
+        assertEquals("Grudi", result.getNaziv());
+        verify(grupaMisicaRepository, times(1)).save(grupaMisica);
+        verify(fileStorageService, times(1)).storeFile(mockFile, grupaMisicaRequest.getNaziv());
+        verify(eventPublisher).publishEvent(new GrupaMisicaSacuvanaEvent(1L, "Grudi"));
     }
 
     @Test
     void testCreateGrupaMisica_DuplicateName() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
             
-            when(grupaMisicaRepository.findAll()).thenReturn(List.of(grupaMisica));
+        when(grupaMisicaRepository.existsByNormalizovanNaziv("grudi")).thenReturn(true);
             
-            assertThrows(DuplicateEntryException.class, () -> grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile));
-            verify(grupaMisicaRepository, never()).save(any(GrupaMisica.class));
-        }
+        assertThrows(DuplicateEntryException.class, () -> grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile));
+        verify(grupaMisicaRepository, never()).save(any(GrupaMisica.class));
+        verify(grupaMisicaRepository, never()).findAll();
+    }
+
+    @Test
+    void testCreateGrupaMisica_ConcurrentDuplicate_ThrowsDuplicateAndRemovesFile() {
+        mockAuthenticatedUser();
+        when(grupaMisicaRepository.existsByNormalizovanNaziv("grudi")).thenReturn(false);
+        when(mockFile.isEmpty()).thenReturn(false);
+        when(fileStorageService.storeFile(any(MultipartFile.class), any(String.class))).thenReturn("grudi.jpg");
+        when(grupaMisicaMapper.toGrupaMisica(any(GrupaMisicaRequest.class))).thenReturn(grupaMisica);
+        when(grupaMisicaRepository.save(any(GrupaMisica.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_grupe_misica_normalizovan_naziv"));
+
+        assertThrows(DuplicateEntryException.class, () -> grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile));
+        verify(fileStorageService).deleteFile("grudi.jpg");
     }
 
     @Test
     void testCreateGrupaMisica_Unauthorized() {
-         try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.isAuthenticated()).thenReturn(false);
-
-            assertThrows(UnauthorizedAccessException.class, () -> grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile));
-            verify(grupaMisicaRepository, never()).save(any(GrupaMisica.class));
-        }
+        when(currentUserResolver.getUserId()).thenThrow(new UnauthorizedAccessException("Korisnik nije autentifikovan."));
+
+        assertThrows(UnauthorizedAccessException.class, () -> grupaMisicaService.createGrupaMisica(grupaMisicaRequest, mockFile));
+        verify(grupaMisicaRepository, never()).save(any(GrupaMisica.class));
     }
 
     // --- TESTOVI ZA getAllGrupeMisica() ---
@@ -170,33 +175,35 @@ class GrupaMisicaServiceTest {
     @Test
     void testGetAllGrupeMisica_Success() {
       
-        GrupaMisica grupa2 = new GrupaMisica(2L, "Ledja", "Opis", null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
+        GrupaMisica grupa2 = new GrupaMisica(2L, "Ledja", "ledja", "Opis", null, new ArrayList<>(), LocalDateTime.now(), LocalDateTime.now());
         GrupaMisicaResponse grupaResponse2 = new GrupaMisicaResponse(2L, "Ledja", "Opis", null, new ArrayList<>());
 
         List<GrupaMisica> grupe = List.of(grupaMisica, grupa2);
         List<GrupaMisicaResponse> responses = List.of(grupaMisicaResponse, grupaResponse2);
         
-        when(grupaMisicaRepository.findAll()).thenReturn(grupe);
-        when(grupaMisicaMapper.toGrupaMisicaResponseList(grupe)).thenReturn(responses);
+        when(grupaMisicaRepository.findAll(Sort.by("id"))).thenReturn(grupe);
+        when(vezbaRepository.findAllSummaries()).thenReturn(List.of(vezbaSummary1, vezbaSummary2));
+        when(grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica, List.of(vezbaSummary1, vezbaSummary2))).thenReturn(grupaMisicaResponse);
+        when(grupaMisicaMapper.toGrupaMisicaResponse(grupa2, List.of())).thenReturn(grupaResponse2);
 
         List<GrupaMisicaResponse> result = grupaMisicaService.getAllGrupeMisica();
         
         assertNotNull(result);
-        assertEquals(2, result.size());
+        assertEquals(responses, result);
         assertEquals("Grudi", result.get(0).getNaziv());
-        verify(grupaMisicaRepository, times(1)).findAll();
+        verify(vezbaRepository, times(1)).findAllSummaries();
     }
 
     @Test
     void testGetAllGrupeMisica_EmptyList() {
-        when(grupaMisicaRepository.findAll()).thenReturn(Collections.emptyList());
-        when(grupaMisicaMapper.toGrupaMisicaResponseList(anyList())).thenReturn(Collections.emptyList());
+        when(grupaMisicaRepository.findAll(Sort.by("id"))).thenReturn(Collections.emptyList());
+        when(vezbaRepository.findAllSummaries()).thenReturn(Collections.emptyList());
 
         List<GrupaMisicaResponse> result = grupaMisicaService.getAllGrupeMisica();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(grupaMisicaRepository, times(1)).findAll();
+        verify(grupaMisicaRepository, times(1)).findAll(Sort.by("id"));
     }
 
 
@@ -204,9 +211,10 @@ class GrupaMisicaServiceTest {
 
     @Test
     void testGetGrupaMisicaById_SuccessWithoutFilter() {
-        when(grupaMisicaRepository.findById(1L)).thenReturn(Optional.of(grupaMisica));
-        grupaMisicaResponse.setVezbe(List.of(vezbaResponse1, vezbaResponse2));
-        when(grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica)).thenReturn(grupaMisicaResponse);
+        when(grupaMisicaRepository.findSaVezbama(1L)).thenReturn(List.of(
+                new GrupaVezbaRed(grupaMisica, vezbaSummary1), new GrupaVezbaRed(grupaMisica, vezbaSummary2)));
+        grupaMisicaResponse.setVezbe(List.of(vezbaSummary1, vezbaSummary2));
+        when(grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica, List.of(vezbaSummary1, vezbaSummary2))).thenReturn(grupaMisicaResponse);
         
         GrupaMisicaResponse result = grupaMisicaService.getGrupaMisicaById(1L, Optional.empty());
 
@@ -214,18 +222,18 @@ class GrupaMisicaServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Grudi", result.getNaziv());
         assertEquals(2, result.getVezbe().size());
-        verify(grupaMisicaRepository, times(1)).findById(1L);
+        verify(grupaMisicaRepository, never()).findById(anyLong());
     }
 
     @Test
     void testGetGrupaMisicaById_WithCategoryFilter_Success() {
-        when(grupaMisicaRepository.findById(1L)).thenReturn(Optional.of(grupaMisica));
+        when(grupaMisicaRepository.findSaVezbamaKategorije(1L, 10L))
+                .thenReturn(List.of(new GrupaVezbaRed(grupaMisica, vezbaSummary1)));
         
       
-        GrupaMisica filteredGrupaMisica = new GrupaMisica(1L, "Grudi", "Opis za grudi.", null, List.of(vezba1), LocalDateTime.now(), LocalDateTime.now());
-        GrupaMisicaResponse filteredGrupaMisicaResponse = new GrupaMisicaResponse(1L, "Grudi", "Opis za grudi.", null, List.of(vezbaResponse1));
+        GrupaMisicaResponse filteredGrupaMisicaResponse = new GrupaMisicaResponse(1L, "Grudi", "Opis za grudi.", null, List.of(vezbaSummary1));
 
-        when(grupaMisicaMapper.toGrupaMisicaResponse(any(GrupaMisica.class))).thenReturn(filteredGrupaMisicaResponse);
+        when(grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica, List.of(vezbaSummary1))).thenReturn(filteredGrupaMisicaResponse);
 
         GrupaMisicaResponse result = grupaMisicaService.getGrupaMisicaById(1L, Optional.of(10L));
         
@@ -233,32 +241,32 @@ class GrupaMisicaServiceTest {
         assertEquals(1L, result.getId());
         assertEquals(1, result.getVezbe().size());
         assertEquals("Bench Press", result.getVezbe().get(0).getNaziv());
-        verify(grupaMisicaRepository, times(1)).findById(1L);
+        verify(grupaMisicaRepository, never()).findSaVezbama(anyLong());
     }
     
     @Test
     void testGetGrupaMisicaById_WithCategoryFilter_NoMatchingVezba() {
-        when(grupaMisicaRepository.findById(1L)).thenReturn(Optional.of(grupaMisica));
+        // left join vraca grupu i bez vezbi
+        when(grupaMisicaRepository.findSaVezbamaKategorije(1L, 30L))
+                .thenReturn(List.of(new GrupaVezbaRed(grupaMisica, null)));
         
     
-        GrupaMisica filteredGrupaMisica = new GrupaMisica(1L, "Grudi", "Opis za grudi.", null, Collections.emptyList(), LocalDateTime.now(), LocalDateTime.now());
         GrupaMisicaResponse filteredGrupaMisicaResponse = new GrupaMisicaResponse(1L, "Grudi", "Opis za grudi.", null, Collections.emptyList());
 
-        when(grupaMisicaMapper.toGrupaMisicaResponse(any(GrupaMisica.class))).thenReturn(filteredGrupaMisicaResponse);
+        when(grupaMisicaMapper.toGrupaMisicaResponse(grupaMisica, Collections.emptyList())).thenReturn(filteredGrupaMisicaResponse);
         
         GrupaMisicaResponse result = grupaMisicaService.getGrupaMisicaById(1L, Optional.of(30L)); // Nepostojeća kategorija
         
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertTrue(result.getVezbe().isEmpty());
-        verify(grupaMisicaRepository, times(1)).findById(1L);
     }
     
     @Test
     void testGetGrupaMisicaById_NotFound() {
-        when(grupaMisicaRepository.findById(99L)).thenReturn(Optional.empty());
+        when(grupaMisicaRepository.findSaVezbama(99L)).thenReturn(Collections.emptyList());
 
         assertThrows(ResourceNotFoundException.class, () -> grupaMisicaService.getGrupaMisicaById(99L, Optional.empty()));
-        verify(grupaMisicaRepository, times(1)).findById(99L);
+        verify(grupaMisicaMapper, never()).toGrupaMisicaResponse(any(GrupaMisica.class), anyList());
     }
 }
@@ -0,0 +1,105 @@
+package rs.ac.bg.fon.nst.fitnes.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
+import rs.ac.bg.fon.nst.fitnes.domain.IdGeneratori;
+import rs.ac.bg.fon.nst.fitnes.domain.Role;
+import rs.ac.bg.fon.nst.fitnes.domain.StavkaDnevnika;
+import rs.ac.bg.fon.nst.fitnes.domain.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(IdGeneratoriPoravnanje.class)
+class IdGeneratoriPoravnanjeTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private IdGeneratoriPoravnanje poravnanje;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Bez transakcije testa: Hibernate generator cita red iz izolovane konekcije, pa red ne sme biti
+    // zakljucan nepotvrdjenom izmenom testa
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testPoravnaj_NewIdsStartAfterExistingRows() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            FitnesDnevnik dnevnik = tx.execute(status -> dnevnik());
+            // red upisan dok je tabela koristila IDENTITY
+            jdbcTemplate.update("insert into stavke_dnevnika (id, dnevnik_id, naziv_aktivnosti) values (?, ?, ?)",
+                    1000L, dnevnik.getId(), "Stari trening");
+
+            poravnanje.poravnaj();
+
+            // Hibernate iz vrednosti V uzima blok (V - velicinaBloka, V]
+            assertEquals(1000L, vrednost(IdGeneratori.STAVKE_DNEVNIKA) - IdGeneratori.BLOK_STAVKE_DNEVNIKA);
+            StavkaDnevnika nova = tx.execute(status -> {
+                StavkaDnevnika stavka = new StavkaDnevnika();
+                stavka.setDnevnik(em.find(FitnesDnevnik.class, dnevnik.getId()));
+                stavka.setNazivAktivnosti("Novi trening");
+                return em.persistAndFlush(stavka);
+            });
+            assertTrue(nova.getId() > 1000L, "novi id " + nova.getId() + " mora biti posle postojeceg 1000");
+        } finally {
+            for (String tabela : new String[]{"stavke_dnevnika", "fitnes_dnevnici", "roles", "users"}) {
+                jdbcTemplate.update("delete from " + tabela);
+            }
+        }
+    }
+
+    @Test
+    void testPoravnaj_GeneratorAheadIsUnchanged() {
+        jdbcTemplate.update("update " + IdGeneratori.TABELA + " set " + IdGeneratori.KOLONA_VREDNOST + " = ? where "
+                + IdGeneratori.KOLONA_NAZIV + " = ?", 5000L, IdGeneratori.PLANOVI_TRENINGA);
+
+        poravnanje.poravnaj();
+
+        assertEquals(5000L, vrednost(IdGeneratori.PLANOVI_TRENINGA));
+    }
+
+    @Test
+    void testPoravnaj_MissingRowIsInserted() {
+        jdbcTemplate.update("delete from " + IdGeneratori.TABELA + " where " + IdGeneratori.KOLONA_NAZIV + " = ?",
+                IdGeneratori.PLANOVI_VEZBI);
+
+        poravnanje.poravnaj();
+
+        assertEquals(IdGeneratori.BLOK_PLANOVI_VEZBI, vrednost(IdGeneratori.PLANOVI_VEZBI));
+    }
+
+    private FitnesDnevnik dnevnik() {
+        User vezbac = new User();
+        vezbac.setEmail("vezbac@example.com");
+        vezbac.setPassword("hash");
+        Role role = new Role("VEZBAC");
+        role.setUser(vezbac);
+        vezbac.setRole(role);
+        em.persist(vezbac);
+
+        FitnesDnevnik dnevnik = new FitnesDnevnik();
+        dnevnik.setNaziv("Dnevnik");
+        dnevnik.setVezbac(vezbac);
+        return em.persistAndFlush(dnevnik);
+    }
+
+    private long vrednost(String naziv) {
+        return jdbcTemplate.queryForObject("select " + IdGeneratori.KOLONA_VREDNOST + " from " + IdGeneratori.TABELA
+                + " where " + IdGeneratori.KOLONA_NAZIV + " = ?", Long.class, naziv);
+    }
+}
@@ -43,8 +43,8 @@ class KategorijaVezbeServiceTest {
     @BeforeEach
     void setUp() {
        
-        KategorijaVezbe kat1 = new KategorijaVezbe(1L, "Kardio", null, null, null);
-        KategorijaVezbe kat2 = new KategorijaVezbe(2L, "Snaga", null, null, null);
+        KategorijaVezbe kat1 = new KategorijaVezbe(1L, "Kardio", "kardio", null, null, null);
+        KategorijaVezbe kat2 = new KategorijaVezbe(2L, "Snaga", "snaga", null, null, null);
         mockKategorije = Arrays.asList(kat1, kat2);
 
       
@@ -5,21 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
 import rs.ac.bg.fon.nst.fitnes.domain.PlanTreninga;
 import rs.ac.bg.fon.nst.fitnes.domain.PlanVezbe;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
 import rs.ac.bg.fon.nst.fitnes.dto.*;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.PlanTreningaMapper;
@@ -28,13 +26,19 @@ import rs.ac.bg.fon.nst.fitnes.repo.PlanTreningaRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.PlanVezbeRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.plan.GenerisanaStavka;
+import rs.ac.bg.fon.nst.fitnes.service.plan.UravnotezeniPlanGenerator;
+import rs.ac.bg.fon.nst.fitnes.service.plan.VezbaKandidat;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -53,16 +57,16 @@ class PlanTreningaServiceTest {
     @Mock
     private VezbaRepository vezbaRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private PlanTreningaMapper planTreningaMapper;
     @Mock
     private PlanVezbeMapper planVezbeMapper;
 
     @Mock
-    private SecurityContext securityContext;
+    private CurrentUserResolver currentUserResolver;
+    @Spy
+    private UravnotezeniPlanGenerator planGenerator;
     @Mock
-    private Authentication authentication;
+    private UserRepository userRepository;
 
     private User vezbac;
     private Vezba vezba;
@@ -113,7 +117,7 @@ class PlanTreningaServiceTest {
 
         planVezbeResponse = new PlanVezbeResponse();
         planVezbeResponse.setId(1L);
-        planVezbeResponse.setVezba(new VezbaResponse());
+        planVezbeResponse.setVezba(new VezbaSummary());
         planVezbeResponse.getVezba().setNaziv("Bench Press");
         planVezbeResponse.setBrojSerija(4);
         planVezbeResponse.setBrojPonavljanja(12);
@@ -131,199 +135,259 @@ class PlanTreningaServiceTest {
         planTreningaGenerationRequest.setGrupeMisica(List.of("Grudi", "Leđa"));
     }
     private void mockAuthenticatedUser() {
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(vezbac.getEmail());
-        when(userRepository.findByEmail(vezbac.getEmail())).thenReturn(Optional.of(vezbac));
+        lenient().when(currentUserResolver.getUserId()).thenReturn(vezbac.getId());
+        lenient().when(currentUserResolver.getUserReference()).thenReturn(vezbac);
     }
 
 
     @Test
     void testGetAllPlanoviTreninga_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            Pageable pageable = PageRequest.of(0, 10, Sort.by("datum").descending());
-            Page<PlanTreninga> planoviPage = new PageImpl<>(List.of(planTreninga), pageable, 1);
-            Page<PlanTreningaResponse> responsePage = new PageImpl<>(List.of(planTreningaResponse), pageable, 1);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("datum").descending());
+        Page<PlanTreninga> planoviPage = new PageImpl<>(List.of(planTreninga), pageable, 1);
+        Page<PlanTreningaResponse> responsePage = new PageImpl<>(List.of(planTreningaResponse), pageable, 1);
 
-            when(planTreningaRepository.findByVezbac(vezbac, pageable)).thenReturn(planoviPage);
-            when(planTreningaMapper.toPlanTreningaResponse(any(PlanTreninga.class))).thenReturn(planTreningaResponse);
+        when(planTreningaRepository.findByVezbac(vezbac, pageable)).thenReturn(planoviPage);
+        when(planTreningaMapper.toPlanTreningaResponse(any(PlanTreninga.class))).thenReturn(planTreningaResponse);
 
-            Page<PlanTreningaResponse> result = planTreningaService.getAllPlanoviTreninga(0, 10);
+        Page<PlanTreningaResponse> result = planTreningaService.getAllPlanoviTreninga(0, 10);
 
-            assertNotNull(result);
-            assertEquals(1, result.getTotalElements());
-            assertEquals(planTreningaResponse.getNaziv(), result.getContent().get(0).getNaziv());
-            verify(planTreningaRepository, times(1)).findByVezbac(vezbac, pageable);
-        }
+        assertNotNull(result);
+        assertEquals(1, result.getTotalElements());
+        assertEquals(planTreningaResponse.getNaziv(), result.getContent().get(0).getNaziv());
+        verify(planTreningaRepository, times(1)).findByVezbac(vezbac, pageable);
     }
 
     @Test
     void testGetAllPlanoviTreninga_Unauthorized() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.isAuthenticated()).thenReturn(false);
-
-            assertThrows(UnauthorizedAccessException.class, () -> planTreningaService.getAllPlanoviTreninga(0, 10));
-            verify(planTreningaRepository, never()).findByVezbac(any(), any());
-        }
+        when(currentUserResolver.getUserReference()).thenThrow(new UnauthorizedAccessException("Korisnik nije autentifikovan."));
+
+        assertThrows(UnauthorizedAccessException.class, () -> planTreningaService.getAllPlanoviTreninga(0, 10));
+        verify(planTreningaRepository, never()).findByVezbac(any(), any());
     }
 
 
     @Test
     void testGetPlanTreningaById_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
-            when(planTreningaRepository.findById(100L)).thenReturn(Optional.of(planTreninga));
-            when(planTreningaMapper.toPlanTreningaResponse(planTreninga)).thenReturn(planTreningaResponse);
-
-            PlanTreningaResponse result = planTreningaService.getPlanTreningaById(100L);
-
-            assertNotNull(result);
-            assertEquals(100L, result.getId());
-            assertEquals("Plan za grudi", result.getNaziv());
-            verify(planTreningaRepository, times(1)).findById(100L);
-        }
+        mockAuthenticatedUser();
+
+        when(planTreningaRepository.findByIdAndVezbacId(100L, vezbac.getId())).thenReturn(Optional.of(planTreninga));
+        when(planTreningaMapper.toPlanTreningaResponse(planTreninga)).thenReturn(planTreningaResponse);
+        VezbaSummary summary = new VezbaSummary(10L, "Bench Press", null, 4, 12, null, null);
+        when(vezbaRepository.findSummariesByIdIn(Set.of(10L))).thenReturn(List.of(summary));
+
+        PlanTreningaResponse result = planTreningaService.getPlanTreningaById(100L);
+
+        assertNotNull(result);
+        assertEquals(100L, result.getId());
+        assertEquals("Plan za grudi", result.getNaziv());
+        // vezba stavke dolazi iz projekcije, ne iz entiteta
+        assertSame(summary, result.getPlanoviVezbi().get(0).getVezba());
+        verify(planTreningaRepository, times(1)).findByIdAndVezbacId(100L, vezbac.getId());
+        verify(planTreningaRepository, never()).existsById(any());
     }
 
     @Test
     void testGetPlanTreningaById_NotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(planTreningaRepository.findById(999L)).thenReturn(Optional.empty());
+        when(planTreningaRepository.findByIdAndVezbacId(999L, vezbac.getId())).thenReturn(Optional.empty());
+        when(planTreningaRepository.existsById(999L)).thenReturn(false);
 
-            assertThrows(ResourceNotFoundException.class, () -> planTreningaService.getPlanTreningaById(999L));
-        }
+        assertThrows(ResourceNotFoundException.class, () -> planTreningaService.getPlanTreningaById(999L));
     }
 
     @Test
     void testGetPlanTreningaById_UnauthorizedAccess() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
+        mockAuthenticatedUser();
 
-            User drugiVezbac = new User();
-            drugiVezbac.setId(2);
-            PlanTreninga tudjiPlan = new PlanTreninga();
-            tudjiPlan.setId(200L);
-            tudjiPlan.setVezbac(drugiVezbac);
+        // plan postoji, ali pripada drugom vezbacu
+        when(planTreningaRepository.findByIdAndVezbacId(200L, vezbac.getId())).thenReturn(Optional.empty());
+        when(planTreningaRepository.existsById(200L)).thenReturn(true);
 
-            when(planTreningaRepository.findById(200L)).thenReturn(Optional.of(tudjiPlan));
-
-            assertThrows(UnauthorizedAccessException.class, () -> planTreningaService.getPlanTreningaById(200L));
-        }
+        assertThrows(UnauthorizedAccessException.class, () -> planTreningaService.getPlanTreningaById(200L));
     }
 
 
     @Test
     void testCreatePlanTreninga_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
-            when(planTreningaMapper.toPlanTreninga(any(PlanTreningaRequest.class))).thenReturn(planTreninga);
-            when(vezbaRepository.findById(10L)).thenReturn(Optional.of(vezba));
-            when(planVezbeMapper.toPlanVezbe(any(PlanVezbeRequestItem.class))).thenReturn(planVezbe);
-            when(planTreningaRepository.save(any(PlanTreninga.class))).thenReturn(planTreninga);
-            when(planTreningaMapper.toPlanTreningaResponse(any(PlanTreninga.class))).thenReturn(planTreningaResponse);
-
-            PlanTreningaResponse result = planTreningaService.createPlanTreninga(planTreningaRequest);
-
-            assertNotNull(result);
-            assertEquals("Plan za grudi", result.getNaziv());
-            assertNotNull(result.getPlanoviVezbi());
-            assertEquals(1, result.getPlanoviVezbi().size());
-            verify(planTreningaRepository, times(1)).save(planTreninga);
-        }
+        mockAuthenticatedUser();
+
+        when(planTreningaMapper.toPlanTreninga(any(PlanTreningaRequest.class))).thenReturn(planTreninga);
+        when(vezbaRepository.findById(10L)).thenReturn(Optional.of(vezba));
+        when(planVezbeMapper.toPlanVezbe(any(PlanVezbeRequestItem.class))).thenReturn(planVezbe);
+        when(planTreningaRepository.save(any(PlanTreninga.class))).thenReturn(planTreninga);
+        when(planTreningaMapper.toPlanTreningaResponse(any(PlanTreninga.class))).thenReturn(planTreningaResponse);
+
+        PlanTreningaResponse result = planTreningaService.createPlanTreninga(planTreningaRequest);
+
+        assertNotNull(result);
+        assertEquals("Plan za grudi", result.getNaziv());
+        assertNotNull(result.getPlanoviVezbi());
+        assertEquals(1, result.getPlanoviVezbi().size());
+        verify(planTreningaRepository, times(1)).save(planTreninga);
     }
 
     @Test
     void testCreatePlanTreninga_VezbaNotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(planTreningaMapper.toPlanTreninga(any(PlanTreningaRequest.class))).thenReturn(planTreninga);
+        when(planTreningaMapper.toPlanTreninga(any(PlanTreningaRequest.class))).thenReturn(planTreninga);
 
-            when(vezbaRepository.findById(10L)).thenReturn(Optional.empty());
+        when(vezbaRepository.findById(10L)).thenReturn(Optional.empty());
 
-            assertThrows(ResourceNotFoundException.class, () -> planTreningaService.createPlanTreninga(planTreningaRequest));
-            verify(planTreningaRepository, never()).save(any(PlanTreninga.class));
-        }
+        assertThrows(ResourceNotFoundException.class, () -> planTreningaService.createPlanTreninga(planTreningaRequest));
+        verify(planTreningaRepository, never()).save(any(PlanTreninga.class));
     }
 
     @Test
     void testGeneratePersonalizedPlan_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
             
-            List<Vezba> vezbeZaGrudi = List.of(createVezba("Bench press", grupaMisicaGrudi), createVezba("Flyes", grupaMisicaGrudi));
-            List<Vezba> vezbeZaLedja = List.of(createVezba("Deadlift", grupaMisicaLedja), createVezba("Pull-ups", grupaMisicaLedja));
-
-            when(vezbaRepository.findByGrupaMisicaNazivIgnoreCase("Grudi")).thenReturn(vezbeZaGrudi);
-            when(vezbaRepository.findByGrupaMisicaNazivIgnoreCase("Leđa")).thenReturn(vezbeZaLedja);
-
-            when(planTreningaRepository.saveAll(anyList())).thenAnswer(invocation -> {
-                List<PlanTreninga> savedPlans = invocation.getArgument(0);
-                IntStream.range(0, savedPlans.size()).forEach(i -> savedPlans.get(i).setId((long) (101 + i)));
-                return savedPlans;
-            });
+        // "Grudi" je naveden dva puta; upit ide jednom, sa svakim nazivom po jednom
+        planTreningaGenerationRequest.setGrupeMisica(List.of("Grudi", "Leđa", " grudi "));
+        when(vezbaRepository.findKandidatiByGrupaMisicaNormalizovanNazivIn(Set.of("grudi", "leđa"))).thenReturn(List.of(
+                new VezbaKandidat(1L, 3, 10, 1L, 1L), new VezbaKandidat(2L, 3, 12, 1L, 1L),
+                new VezbaKandidat(3L, 4, 6, 2L, 1L), new VezbaKandidat(4L, 3, 8, 2L, 1L)));
+        when(vezbaRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Vezba vezba = new Vezba();
+            vezba.setId(invocation.getArgument(0));
+            return vezba;
+        });
+
+        when(planTreningaRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PlanTreninga> savedPlans = invocation.getArgument(0);
+            IntStream.range(0, savedPlans.size()).forEach(i -> savedPlans.get(i).setId((long) (101 + i)));
+            return savedPlans;
+        });
             
-            List<PlanTreningaResponse> mockResponses = IntStream.range(0, planTreningaGenerationRequest.getBrojDana())
-                    .mapToObj(i -> new PlanTreningaResponse())
-                    .collect(Collectors.toList());
+        List<PlanTreningaResponse> mockResponses = IntStream.range(0, planTreningaGenerationRequest.getBrojDana())
+                .mapToObj(i -> new PlanTreningaResponse())
+                .collect(Collectors.toList());
+
+        when(planTreningaMapper.toPlanTreningaResponseList(anyList())).thenReturn(mockResponses);
 
-            when(planTreningaMapper.toPlanTreningaResponseList(anyList())).thenReturn(mockResponses);
+        GenerisaniPlanResponse result = planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
 
-            List<PlanTreningaResponse> result = planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
+        assertNotNull(result);
+        assertEquals(planTreningaGenerationRequest.getBrojDana(), result.getPlanovi().size());
+        verify(planTreningaRepository, times(1)).saveAll(anyList());
+        verify(planTreningaMapper, times(1)).toPlanTreningaResponseList(anyList());
+        verify(vezbaRepository, times(1)).findKandidatiByGrupaMisicaNormalizovanNazivIn(anyCollection());
+        verify(vezbaRepository, never()).findById(anyLong());
+    }
 
-            assertNotNull(result);
-            assertEquals(planTreningaGenerationRequest.getBrojDana(), result.size());
-            verify(planTreningaRepository, times(1)).saveAll(anyList());
-            verify(planTreningaMapper, times(1)).toPlanTreningaResponseList(anyList());
-        }
+    @Test
+    void testGeneratePersonalizedPlan_SameSeedSameExercises() {
+        mockAuthenticatedUser();
+        List<VezbaKandidat> kandidati = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new VezbaKandidat(id, 3, 10, id % 2 + 1, 1L))
+                .toList();
+        when(vezbaRepository.findKandidatiByGrupaMisicaNormalizovanNazivIn(anyCollection())).thenReturn(kandidati);
+        when(vezbaRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Vezba vezba = new Vezba();
+            vezba.setId(invocation.getArgument(0));
+            return vezba;
+        });
+        List<List<Long>> izabrane = new ArrayList<>();
+        when(planTreningaRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PlanTreninga> planovi = invocation.getArgument(0);
+            for (PlanTreninga plan : planovi) {
+                List<Long> ids = plan.getPlanoviVezbi().stream().map(stavka -> stavka.getVezba().getId()).toList();
+                assertEquals(7, Set.copyOf(ids).size());
+                izabrane.add(ids);
+            }
+            return planovi;
+        });
+        when(planTreningaMapper.toPlanTreningaResponseList(anyList())).thenReturn(List.of());
+
+        GenerisaniPlanResponse prvi = planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
+        planTreningaGenerationRequest.setSeed(prvi.getSeed());
+        GenerisaniPlanResponse drugi = planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
+
+        int brojDana = planTreningaGenerationRequest.getBrojDana();
+        assertEquals(prvi.getSeed(), drugi.getSeed());
+        // Nasumican seed mora preziveti JSON broj u JavaScript-u
+        assertTrue(prvi.getSeed() >= 0 && prvi.getSeed() <= PlanTreningaService.MAX_SEED);
+        assertEquals(izabrane.subList(0, brojDana), izabrane.subList(brojDana, 2 * brojDana));
     }
 
     @Test
     void testGeneratePersonalizedPlan_ResourceNotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
            
-            when(vezbaRepository.findByGrupaMisicaNazivIgnoreCase("Grudi")).thenReturn(new ArrayList<>());
-            when(vezbaRepository.findByGrupaMisicaNazivIgnoreCase("Leđa")).thenReturn(new ArrayList<>());
+        when(vezbaRepository.findKandidatiByGrupaMisicaNormalizovanNazivIn(Set.of("grudi", "leđa"))).thenReturn(List.of());
 
           
-            ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
-                planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
-            });
+        ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
+            planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest);
+        });
 
         
-            String expectedMessage = "Nijedna vežba nije pronađena za izabrane mišićne grupe.";
-            assertEquals(expectedMessage, thrown.getMessage());
+        String expectedMessage = "Nijedna vežba nije pronađena za izabrane mišićne grupe.";
+        assertEquals(expectedMessage, thrown.getMessage());
 
         
-            verify(planTreningaRepository, never()).saveAll(anyList());
-        }
+        verify(planTreningaRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testGeneratePersonalizedPlan_NonPositiveDays_ThrowsInvalidRequest() {
+        planTreningaGenerationRequest.setBrojDana(-3);
+
+        assertThrows(InvalidRequestException.class,
+                () -> planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest));
+
+        planTreningaGenerationRequest.setBrojDana(0);
+
+        assertThrows(InvalidRequestException.class,
+                () -> planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest));
+        verify(vezbaRepository, never()).findKandidatiByGrupaMisicaNormalizovanNazivIn(anyCollection());
+        verify(planTreningaRepository, never()).saveAll(anyList());
     }
-    
-
-    private Vezba createVezba(String naziv, GrupaMisica grupaMisica) {
-        Vezba v = new Vezba();
-        v.setNaziv(naziv);
-        v.setPreporuceniBrojSerija(4);
-        v.setPreporuceniBrojPonavljanja(12);
-        v.setGrupaMisica(grupaMisica);
-        return v;
+
+    @Test
+    void testGeneratePersonalizedPlan_TooManyDaysForSyncRequest() {
+        planTreningaGenerationRequest.setBrojDana(PlanTreningaService.MAX_DANA_SINHRONO + 1);
+
+        assertThrows(InvalidRequestException.class,
+                () -> planTreningaService.generatePersonalizedPlan(planTreningaGenerationRequest));
+
+        verify(vezbaRepository, never()).findKandidatiByGrupaMisicaNormalizovanNazivIn(anyCollection());
+        verify(planTreningaRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testSacuvajDeoRasporeda_SavesOnlyRequestedDays() {
+        when(userRepository.getReferenceById(1)).thenReturn(vezbac);
+        when(vezbaRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Vezba vezba = new Vezba();
+            vezba.setId(invocation.getArgument(0));
+            return vezba;
+        });
+        when(planTreningaRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PlanTreninga> planovi = invocation.getArgument(0);
+            planovi.forEach(plan -> plan.setId(200L + plan.getDatum().getDayOfYear()));
+            return planovi;
+        });
+        List<List<GenerisanaStavka>> dani = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> List.of(new GenerisanaStavka(id, 3, 10)))
+                .toList();
+        LocalDateTime pocetak = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        List<Long> ids = planTreningaService.sacuvajDeoRasporeda(1, "Plan", pocetak, dani, 2, 4);
+
+        assertEquals(List.of(203L, 204L), ids);
+        verify(planTreningaRepository).saveAll(argThat(planovi -> {
+            List<PlanTreninga> lista = new ArrayList<>();
+            planovi.forEach(lista::add);
+            return lista.size() == 2
+                    && lista.get(0).getNaziv().equals("Plan - Dan 3")
+                    && lista.get(1).getPlanoviVezbi().get(0).getVezba().getId() == 4L
+                    && lista.get(1).getVezbac() == vezbac;
+        }));
+        verifyNoInteractions(currentUserResolver);
     }
 }
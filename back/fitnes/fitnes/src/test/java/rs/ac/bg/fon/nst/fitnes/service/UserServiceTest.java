@@ -9,16 +9,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import rs.ac.bg.fon.nst.fitnes.domain.FitnesDnevnik;
 import rs.ac.bg.fon.nst.fitnes.domain.Role;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
@@ -30,6 +27,10 @@ import rs.ac.bg.fon.nst.fitnes.mapper.FitnesDnevnikMapper;
 import rs.ac.bg.fon.nst.fitnes.mapper.UserMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.FitnesDnevnikRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.security.KorisnikObrisanEvent;
+import rs.ac.bg.fon.nst.fitnes.security.TokenRevocationStore;
+import rs.ac.bg.fon.nst.fitnes.service.auth.RefreshTokenService;
 
 import java.util.Collections;
 import java.util.List;
@@ -54,12 +55,16 @@ class UserServiceTest {
     private UserMapper userMapper;
     @Mock
     private FitnesDnevnikMapper fitnesDnevnikMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+    @Mock
+    private RefreshTokenService refreshTokenService;
 
     
     @Mock
-    private SecurityContext securityContext;
-    @Mock
-    private Authentication authentication;
+    private CurrentUserResolver currentUserResolver;
 
     private User mockLoggedInUser;
     private User mockTrainer;
@@ -108,51 +113,40 @@ class UserServiceTest {
 
    
     private void mockAuthenticatedUser() {
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getPrincipal()).thenReturn("vezbac@example.com");
-        when(authentication.getName()).thenReturn("vezbac@example.com");
-        when(userRepository.findByEmail("vezbac@example.com")).thenReturn(Optional.of(mockLoggedInUser));
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.getUserId()).thenReturn(mockLoggedInUser.getId());
+        lenient().when(currentUserResolver.getUserReference()).thenReturn(mockLoggedInUser);
     }
 
 
 
     @Test
     void testGetLoggedInUserDnevnici_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
-            Page<FitnesDnevnik> fitnesDnevnikPage = new PageImpl<>(Collections.singletonList(mockFitnesDnevnik), pageable, 1);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        Page<FitnesDnevnik> fitnesDnevnikPage = new PageImpl<>(Collections.singletonList(mockFitnesDnevnik), pageable, 1);
 
-            when(fitnesDnevnikRepository.findByVezbac(mockLoggedInUser, pageable)).thenReturn(fitnesDnevnikPage);
-            when(fitnesDnevnikMapper.toFitnesDnevnikResponse(mockFitnesDnevnik)).thenReturn(mockFitnesDnevnikResponse);
+        when(fitnesDnevnikRepository.findByVezbac(mockLoggedInUser, pageable)).thenReturn(fitnesDnevnikPage);
+        when(fitnesDnevnikMapper.toFitnesDnevnikResponse(mockFitnesDnevnik)).thenReturn(mockFitnesDnevnikResponse);
 
-            Page<FitnesDnevnikResponse> result = userService.getLoggedInUserDnevnici(0, 10);
+        Page<FitnesDnevnikResponse> result = userService.getLoggedInUserDnevnici(0, 10);
 
-            assertNotNull(result);
-            assertEquals(1, result.getTotalElements());
-            assertEquals(mockFitnesDnevnikResponse.getNaslov(), result.getContent().get(0).getNaslov());
+        assertNotNull(result);
+        assertEquals(1, result.getTotalElements());
+        assertEquals(mockFitnesDnevnikResponse.getNaslov(), result.getContent().get(0).getNaslov());
 
-            verify(fitnesDnevnikRepository, times(1)).findByVezbac(mockLoggedInUser, pageable);
-            verify(fitnesDnevnikMapper, times(1)).toFitnesDnevnikResponse(mockFitnesDnevnik);
-        }
+        verify(fitnesDnevnikRepository, times(1)).findByVezbac(mockLoggedInUser, pageable);
+        verify(fitnesDnevnikMapper, times(1)).toFitnesDnevnikResponse(mockFitnesDnevnik);
     }
 
     @Test
     void testGetLoggedInUserDnevnici_Unauthorized() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.isAuthenticated()).thenReturn(false);
+        when(currentUserResolver.getUserReference()).thenThrow(new UnauthorizedAccessException("Korisnik nije autentifikovan."));
 
-            assertThrows(UnauthorizedAccessException.class, () -> userService.getLoggedInUserDnevnici(0, 10));
+        assertThrows(UnauthorizedAccessException.class, () -> userService.getLoggedInUserDnevnici(0, 10));
 
-            verifyNoInteractions(fitnesDnevnikRepository);
-            verifyNoInteractions(userRepository);
-        }
+        verifyNoInteractions(fitnesDnevnikRepository);
+        verifyNoInteractions(userRepository);
     }
     
    
@@ -203,6 +197,9 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findById(2);
         verify(userRepository, times(1)).delete(mockTrainer);
+        verify(eventPublisher, times(1)).publishEvent(new KorisnikObrisanEvent(2));
+        verify(tokenRevocationStore, times(1)).revokeAllForUser(2);
+        verify(refreshTokenService, times(1)).revokeAllForUser(2);
     }
 
     @Test
@@ -226,6 +223,9 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findById(3);
         verify(userRepository, times(1)).delete(mockVezbac);
+        verify(eventPublisher, times(1)).publishEvent(new KorisnikObrisanEvent(3));
+        verify(tokenRevocationStore, times(1)).revokeAllForUser(3);
+        verify(refreshTokenService, times(1)).revokeAllForUser(3);
     }
 
     @Test
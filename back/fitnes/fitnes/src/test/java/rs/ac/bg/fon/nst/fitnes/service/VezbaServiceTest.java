@@ -9,29 +9,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 import rs.ac.bg.fon.nst.fitnes.domain.GrupaMisica;
 import rs.ac.bg.fon.nst.fitnes.domain.KategorijaVezbe;
 import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.domain.Vezba;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaPageResponse;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.VezbaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.VezbaSummary;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidRequestException;
 import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
 import rs.ac.bg.fon.nst.fitnes.exception.UnauthorizedAccessException;
 import rs.ac.bg.fon.nst.fitnes.mapper.VezbaMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
-import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
 import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
 import rs.ac.bg.fon.nst.fitnes.service.file.FileStorageService;
+import rs.ac.bg.fon.nst.fitnes.security.CurrentUserResolver;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogFacetIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.KatalogSuggestIndex;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaDokument;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSacuvanaEvent;
+import rs.ac.bg.fon.nst.fitnes.service.catalog.VezbaSearchIndex;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -54,15 +60,19 @@ class VezbaServiceTest {
     @Mock
     private KategorijaVezbeRepository kategorijaVezbeRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private VezbaMapper vezbaMapper;
     @Mock
     private FileStorageService fileStorageService;
     @Mock
-    private SecurityContext securityContext;
+    private VezbaSearchIndex vezbaSearchIndex;
+    @Mock
+    private KatalogSuggestIndex katalogSuggestIndex;
+    @Mock
+    private KatalogFacetIndex katalogFacetIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Mock
-    private Authentication authentication;
+    private CurrentUserResolver currentUserResolver;
 
     private User mockUser;
     private GrupaMisica mockGrupaMisica;
@@ -105,59 +115,62 @@ class VezbaServiceTest {
 
     
     private void mockAuthenticatedUser() {
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getPrincipal()).thenReturn("trener@example.com");
-        when(authentication.getName()).thenReturn("trener@example.com");
-        when(userRepository.findByEmail("trener@example.com")).thenReturn(Optional.of(mockUser));
-        SecurityContextHolder.setContext(securityContext);
+        lenient().when(currentUserResolver.getUserId()).thenReturn(mockUser.getId());
+        lenient().when(currentUserResolver.getUserReference()).thenReturn(mockUser);
     }
 
    
 
     @Test
-    void testGetAllVezbe_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+    void testGetVezbe_MoreRowsThanPage_ReturnsCursorOfLastRow() {
+        VezbaSummary prva = new VezbaSummary(1L, "Bench Press", null, 4, 12, null, 1L);
+        VezbaSummary druga = new VezbaSummary(2L, "Čučanj", null, 4, 10, null, 1L);
+        VezbaSummary treca = new VezbaSummary(3L, "Zgib", null, 3, 8, null, 1L);
 
-            List<Vezba> vezbeList = Arrays.asList(mockVezba);
-            List<VezbaResponse> responseList = Arrays.asList(mockVezbaResponse);
+        when(vezbaRepository.findSummaries(any(Specification.class), any(Sort.class), eq(3))).thenReturn(List.of(prva, druga, treca));
 
-            when(vezbaRepository.findAll()).thenReturn(vezbeList);
-            when(vezbaMapper.toVezbaResponseList(vezbeList)).thenReturn(responseList);
+        VezbaPageResponse result = vezbaService.getVezbe(null, null, null, null, null, 2);
 
-            List<VezbaResponse> result = vezbaService.getAllVezbe();
-
-            assertNotNull(result);
-            assertEquals(1, result.size());
-            assertEquals("Bench Press", result.get(0).getNaziv());
-
-            verify(vezbaRepository, times(1)).findAll();
-            verify(vezbaMapper, times(1)).toVezbaResponseList(vezbeList);
-        }
+        assertTrue(result.isHasNext());
+        assertEquals(List.of(prva, druga), result.getContent());
+        VezbaService.Cursor cursor = VezbaService.Cursor.decode(result.getNextCursor());
+        assertEquals("čučanj", cursor.normalizovanNaziv());
+        assertEquals(2L, cursor.id());
     }
 
     @Test
-    void testGetAllVezbe_EmptyList() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+    void testGetVezbe_LastPage_NoCursor() {
+        VezbaSummary summary = new VezbaSummary(1L, "Bench Press", null, 4, 12, null, 1L);
+        when(vezbaRepository.findSummaries(any(Specification.class), any(Sort.class), eq(21))).thenReturn(List.of(summary));
 
-            when(vezbaRepository.findAll()).thenReturn(Collections.emptyList());
-            when(vezbaMapper.toVezbaResponseList(Collections.emptyList())).thenReturn(Collections.emptyList());
+        VezbaPageResponse result = vezbaService.getVezbe(1L, 2L, 3, "bench", null, 20);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals("Bench Press", result.getContent().get(0).getNaziv());
+        verifyNoInteractions(vezbaMapper);
+    }
 
-            List<VezbaResponse> result = vezbaService.getAllVezbe();
+    @Test
+    void testSearchVezbe_ServedFromIndex() {
+        VezbaDokument dokument = new VezbaDokument(1L, "Bench Press", "opis", "grudi", "savet", "bench.jpg",
+                4, 12, 1L, "Snaga", 1L, 1);
+        when(vezbaSearchIndex.search("bench", 100)).thenReturn(List.of(dokument));
 
-            assertNotNull(result);
-            assertEquals(0, result.size());
+        List<VezbaSummary> result = vezbaService.searchVezbe("bench", 500);
 
-            verify(vezbaRepository, times(1)).findAll();
-            verify(vezbaMapper, times(1)).toVezbaResponseList(Collections.emptyList());
-        }
+        assertEquals(1, result.size());
+        assertEquals("/uploads/bench.jpg", result.get(0).getSlika());
+        assertEquals("Snaga", result.get(0).getKategorija().getNaziv());
+        verifyNoInteractions(vezbaRepository);
     }
 
-
+    @Test
+    void testGetVezbe_InvalidCursor_ThrowsInvalidRequest() {
+        assertThrows(InvalidRequestException.class,
+                () -> vezbaService.getVezbe(null, null, null, null, "nije-kursor", 20));
+        verifyNoInteractions(vezbaRepository);
+    }
 
     @Test
     void testGetVezbaById_Success() {
@@ -189,108 +202,94 @@ class VezbaServiceTest {
 
     @Test
     void testCreateVezba_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
-            when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.of(mockGrupaMisica));
-            when(kategorijaVezbeRepository.findById(anyLong())).thenReturn(Optional.of(mockKategorijaVezbe));
-            when(vezbaMapper.toVezba(any(VezbaRequest.class))).thenReturn(mockVezba);
-            when(fileStorageService.storeFile(any(MultipartFile.class), anyString())).thenReturn("test-file.jpg");
-            when(vezbaRepository.save(any(Vezba.class))).thenReturn(mockVezba);
-            when(vezbaMapper.toVezbaResponse(any(Vezba.class))).thenReturn(mockVezbaResponse);
-
-            MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
-            MultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "video data".getBytes());
-
-            VezbaResponse result = vezbaService.createVezba(mockVezbaRequest, slika, video);
-
-            assertNotNull(result);
-            assertEquals("Bench Press", result.getNaziv());
-            verify(vezbaRepository, times(1)).save(any(Vezba.class));
-            verify(fileStorageService, times(2)).storeFile(any(MultipartFile.class), anyString());
-        }
+        mockAuthenticatedUser();
+
+        when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.of(mockGrupaMisica));
+        when(kategorijaVezbeRepository.findById(anyLong())).thenReturn(Optional.of(mockKategorijaVezbe));
+        when(vezbaMapper.toVezba(any(VezbaRequest.class))).thenReturn(mockVezba);
+        when(fileStorageService.storeFile(any(MultipartFile.class), anyString())).thenReturn("test-file.jpg");
+        when(vezbaRepository.save(any(Vezba.class))).thenReturn(mockVezba);
+        when(vezbaMapper.toVezbaResponse(any(Vezba.class))).thenReturn(mockVezbaResponse);
+
+        MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
+        MultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "video data".getBytes());
+
+        VezbaResponse result = vezbaService.createVezba(mockVezbaRequest, slika, video);
+
+        assertNotNull(result);
+        assertEquals("Bench Press", result.getNaziv());
+        verify(vezbaRepository, times(1)).save(any(Vezba.class));
+        verify(fileStorageService, times(2)).storeFile(any(MultipartFile.class), anyString());
+        verify(eventPublisher).publishEvent(new VezbaSacuvanaEvent(VezbaDokument.from(mockVezba)));
     }
 
     @Test
     void testCreateVezba_GrupaMisicaNotFound() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
+        mockAuthenticatedUser();
 
-            when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.empty());
 
-            MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
-            MultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "video data".getBytes());
+        MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
+        MultipartFile video = new MockMultipartFile("video", "video.mp4", "video/mp4", "video data".getBytes());
 
-            ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
-                    vezbaService.createVezba(mockVezbaRequest, slika, video));
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
+                vezbaService.createVezba(mockVezbaRequest, slika, video));
 
-            assertEquals("Grupa mišića nije pronađen sa id : '1'", exception.getMessage());
-            verify(vezbaRepository, never()).save(any());
-        }
+        assertEquals("Grupa mišića nije pronađen sa id : '1'", exception.getMessage());
+        verify(vezbaRepository, never()).save(any());
     }
 
 
 
     @Test
     void testUpdateVezba_Success() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            mockAuthenticatedUser();
-
-            mockVezba.setSlika("stara-slika/stara.jpg");
-            when(vezbaRepository.findById(1L)).thenReturn(Optional.of(mockVezba));
-            when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.of(mockGrupaMisica));
-            when(kategorijaVezbeRepository.findById(anyLong())).thenReturn(Optional.of(mockKategorijaVezbe));
-            when(vezbaRepository.save(any(Vezba.class))).thenReturn(mockVezba);
-            when(vezbaMapper.toVezbaResponse(any(Vezba.class))).thenReturn(mockVezbaResponse);
-            when(fileStorageService.storeFile(any(MultipartFile.class), anyString())).thenReturn("nova-slika/nova.jpg");
-            when(fileStorageService.deleteFile(anyString())).thenReturn(true);
-
-            VezbaRequest updateRequest = new VezbaRequest();
-            updateRequest.setNaziv("Updated Bench Press");
-            updateRequest.setGrupaMisicaId(1L);
-            updateRequest.setKategorijaId(1L);
-
-            MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
-
-            VezbaResponse result = vezbaService.updateVezba(1L, updateRequest, slika, null);
-
-            assertNotNull(result);
-            assertEquals("Bench Press", result.getNaziv()); // Maper nije implementiran u mocku
-            verify(vezbaRepository, times(1)).findById(1L);
-            verify(vezbaRepository, times(1)).save(any(Vezba.class));
-            verify(fileStorageService, times(1)).deleteFile("stara-slika/stara.jpg");
-            verify(fileStorageService, times(1)).storeFile(any(MultipartFile.class), anyString());
-        }
+        mockAuthenticatedUser();
+
+        mockVezba.setSlika("stara-slika/stara.jpg");
+        when(vezbaRepository.existsByIdAndTrenerIdNot(1L, mockUser.getId())).thenReturn(false);
+        when(vezbaRepository.findById(1L)).thenReturn(Optional.of(mockVezba));
+        when(grupaMisicaRepository.findById(anyLong())).thenReturn(Optional.of(mockGrupaMisica));
+        when(kategorijaVezbeRepository.findById(anyLong())).thenReturn(Optional.of(mockKategorijaVezbe));
+        when(vezbaRepository.save(any(Vezba.class))).thenReturn(mockVezba);
+        when(vezbaMapper.toVezbaResponse(any(Vezba.class))).thenReturn(mockVezbaResponse);
+        when(fileStorageService.storeFile(any(MultipartFile.class), anyString())).thenReturn("nova-slika/nova.jpg");
+        when(fileStorageService.deleteFile(anyString())).thenReturn(true);
+
+        VezbaRequest updateRequest = new VezbaRequest();
+        updateRequest.setNaziv("Updated Bench Press");
+        updateRequest.setGrupaMisicaId(1L);
+        updateRequest.setKategorijaId(1L);
+
+        MultipartFile slika = new MockMultipartFile("slika", "slika.jpg", "image/jpeg", "slika data".getBytes());
+
+        VezbaResponse result = vezbaService.updateVezba(1L, updateRequest, slika, null);
+
+        assertNotNull(result);
+        assertEquals("Bench Press", result.getNaziv()); // Maper nije implementiran u mocku
+        verify(vezbaRepository, times(1)).findById(1L);
+        verify(vezbaRepository, times(1)).save(any(Vezba.class));
+        verify(fileStorageService, times(1)).deleteFile("stara-slika/stara.jpg");
+        verify(fileStorageService, times(1)).storeFile(any(MultipartFile.class), anyString());
     }
     
     @Test
     void testUpdateVezba_UnauthorizedAccess() {
-        try (MockedStatic<SecurityContextHolder> securityContextHolderMock = mockStatic(SecurityContextHolder.class)) {
-            securityContextHolderMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
             
             
-            User otherUser = new User();
-            otherUser.setId(2);
-            otherUser.setEmail("drugi@example.com");
-
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.isAuthenticated()).thenReturn(true);
-            when(authentication.getName()).thenReturn(otherUser.getEmail());
-            when(userRepository.findByEmail(otherUser.getEmail())).thenReturn(Optional.of(otherUser));
-            SecurityContextHolder.setContext(securityContext);
-
-            when(vezbaRepository.findById(1L)).thenReturn(Optional.of(mockVezba));
-
-            VezbaRequest updateRequest = new VezbaRequest();
-            UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class, () ->
-                    vezbaService.updateVezba(1L, updateRequest, null, null));
-
-            assertEquals("Nemate dozvolu za ažuriranje ove vežbe.", exception.getMessage());
-            verify(vezbaRepository, times(1)).findById(1L);
-            verify(vezbaRepository, never()).save(any());
-        }
+        User otherUser = new User();
+        otherUser.setId(2);
+        otherUser.setEmail("drugi@example.com");
+
+        when(currentUserResolver.getUserId()).thenReturn(otherUser.getId());
+
+        when(vezbaRepository.existsByIdAndTrenerIdNot(1L, otherUser.getId())).thenReturn(true);
+
+        VezbaRequest updateRequest = new VezbaRequest();
+        UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class, () ->
+                vezbaService.updateVezba(1L, updateRequest, null, null));
+
+        assertEquals("Nemate dozvolu za ažuriranje ove vežbe.", exception.getMessage());
+        verify(vezbaRepository, never()).findById(any());
+        verify(vezbaRepository, never()).save(any());
     }
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,13 +17,19 @@ import rs.ac.bg.fon.nst.fitnes.domain.User;
 import rs.ac.bg.fon.nst.fitnes.dto.LoginRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.RegisterRequest;
 import rs.ac.bg.fon.nst.fitnes.dto.UserResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.AuthResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.RoleResponse;
 import rs.ac.bg.fon.nst.fitnes.exception.DuplicateEntryException;
-import rs.ac.bg.fon.nst.fitnes.exception.ResourceNotFoundException;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidTokenException;
 import rs.ac.bg.fon.nst.fitnes.mapper.UserMapper;
 import rs.ac.bg.fon.nst.fitnes.repo.UserRepository;
+import rs.ac.bg.fon.nst.fitnes.security.JwtAuthenticationDetails;
 import rs.ac.bg.fon.nst.fitnes.security.JwtTokenProvider;
+import rs.ac.bg.fon.nst.fitnes.security.TokenRevocationStore;
+import rs.ac.bg.fon.nst.fitnes.security.UserPrincipal;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,6 +56,12 @@ class AuthServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -114,60 +127,96 @@ class AuthServiceTest {
     @Test
     void testLoginUser_Success() {
        
-        Authentication authentication = mock(Authentication.class);
+        UserPrincipal principal = UserPrincipal.fromUser(testUser);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
         when(jwtTokenProvider.generateToken(authentication)).thenReturn("mock_jwt_token");
+        when(userMapper.toUserResponse(testUser)).thenReturn(
+                new UserResponse(1, "test@example.com", new RoleResponse(1, "TRENER"), null));
+        when(refreshTokenService.issue(1)).thenReturn("refresh");
 
        
-        String token = authService.loginUser(loginRequest);
+        AuthResponse response = authService.loginUser(loginRequest);
 
        
-        assertNotNull(token);
-        assertEquals("mock_jwt_token", token);
+        assertNotNull(response);
+        assertEquals("mock_jwt_token", response.getAccessToken());
+        assertEquals("refresh", response.getRefreshToken());
+        assertEquals("TRENER", response.getRole());
 
         
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtTokenProvider, times(1)).generateToken(authentication);
+        // Korisnik se ne ucitava ponovo posle provere lozinke
+        verifyNoInteractions(userRepository);
        
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
+    @Test
+    void testLoginUser_PrincipalWithoutEntity_LoadsUserByEmail() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("test@example.com", null, List.of());
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
+        when(jwtTokenProvider.generateToken(authentication)).thenReturn("mock_jwt_token");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userMapper.toUserResponse(testUser)).thenReturn(
+                new UserResponse(1, "test@example.com", new RoleResponse(1, "TRENER"), null));
+
+        AuthResponse response = authService.loginUser(loginRequest);
+
+        assertEquals(1, response.getData().getId());
+        verify(refreshTokenService).issue(1);
+    }
+
     @Test
     void testLogoutUser_Success() {
        
-        authService.logoutUser();
+        authService.logoutUser(null);
 
       
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
     @Test
-    void testGetUserByEmail_Success() {
-      
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(userMapper.toUserResponse(any(User.class))).thenReturn(new UserResponse(1, "test@example.com", null, null));
+    void testLogoutUser_RevokesCurrentToken() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("test@example.com", null, List.of());
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), "jti-1", 12345L));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-     
-        UserResponse result = authService.getUserByEmail("test@example.com");
+        authService.logoutUser(null);
 
-      
-        assertNotNull(result);
-        assertEquals(testUser.getEmail(), result.getEmail());
+        verify(tokenRevocationStore, times(1)).revokeToken("jti-1", 12345L);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
 
-       
-        verify(userRepository, times(1)).findByEmail("test@example.com");
-        verify(userMapper, times(1)).toUserResponse(any(User.class));
+    @Test
+    void testLogoutUser_WithRefreshToken_RevokesIt() {
+        authService.logoutUser("refresh-1");
+
+        verify(refreshTokenService, times(1)).revoke("refresh-1");
     }
 
     @Test
-    void testGetUserByEmail_NotFound_ThrowsException() {
-       
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+    void testRefreshTokens_Success() {
+        when(refreshTokenService.rotate("stari")).thenReturn(new RefreshTokenService.Rotation(1, "novi"));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.generateToken(any(Authentication.class))).thenReturn("novi_access_token");
+        UserResponse userResponse = new UserResponse(1, "test@example.com", new RoleResponse(1, "TRENER"), null);
+        when(userMapper.toUserResponse(testUser)).thenReturn(userResponse);
+
+        AuthResponse result = authService.refreshTokens("stari");
+
+        assertEquals("novi_access_token", result.getAccessToken());
+        assertEquals("novi", result.getRefreshToken());
+        assertEquals("TRENER", result.getRole());
+    }
 
-       
-        assertThrows(ResourceNotFoundException.class, () -> authService.getUserByEmail("nepostojeci@email.com"));
+    @Test
+    void testRefreshTokens_InvalidToken_ThrowsException() {
+        when(refreshTokenService.rotate("los")).thenThrow(new InvalidTokenException("Refresh token nije validan."));
 
-       
-        verify(userMapper, never()).toUserResponse(any(User.class));
+        assertThrows(InvalidTokenException.class, () -> authService.refreshTokens("los"));
+        verify(jwtTokenProvider, never()).generateToken(any());
     }
-}
\ No newline at end of file
+}
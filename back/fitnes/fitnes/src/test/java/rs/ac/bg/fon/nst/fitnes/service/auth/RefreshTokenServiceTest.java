@@ -0,0 +1,99 @@
+package rs.ac.bg.fon.nst.fitnes.service.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.domain.RefreshToken;
+import rs.ac.bg.fon.nst.fitnes.exception.InvalidTokenException;
+import rs.ac.bg.fon.nst.fitnes.repo.RefreshTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 60000);
+    }
+
+    private RefreshToken stored(String rawToken, boolean revoked, LocalDateTime expiresAt) {
+        return new RefreshToken(10L, RefreshTokenService.hash(rawToken), "porodica-1", 1, expiresAt, revoked, null);
+    }
+
+    @Test
+    void testIssue_StoresOnlyHash() {
+        String rawToken = refreshTokenService.issue(1);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotEquals(rawToken, captor.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(rawToken), captor.getValue().getTokenHash());
+        assertEquals(1, captor.getValue().getUserId());
+    }
+
+    @Test
+    void testRotate_Success_IssuesNewTokenInSameFamily() {
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("stari")))
+                .thenReturn(Optional.of(stored("stari", false, LocalDateTime.now().plusHours(1))));
+        when(refreshTokenRepository.markUsed(10L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("stari");
+
+        assertEquals(1, rotation.userId());
+        assertNotEquals("stari", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("porodica-1", captor.getValue().getFamilyId());
+    }
+
+    @Test
+    void testRotate_ReusedToken_RevokesFamily() {
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("stari")))
+                .thenReturn(Optional.of(stored("stari", true, LocalDateTime.now().plusHours(1))));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("stari"));
+        verify(refreshTokenRepository, times(1)).revokeFamily("porodica-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_ConcurrentUse_RevokesFamily() {
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("stari")))
+                .thenReturn(Optional.of(stored("stari", false, LocalDateTime.now().plusHours(1))));
+        when(refreshTokenRepository.markUsed(10L)).thenReturn(0);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("stari"));
+        verify(refreshTokenRepository, times(1)).revokeFamily("porodica-1");
+    }
+
+    @Test
+    void testRotate_Expired_ThrowsException() {
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("stari")))
+                .thenReturn(Optional.of(stored("stari", false, LocalDateTime.now().minusMinutes(1))));
+        when(refreshTokenRepository.markUsed(10L)).thenReturn(1);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("stari"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_UnknownToken_ThrowsException() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("nepoznat"));
+    }
+}
@@ -0,0 +1,122 @@
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.dto.FasetaBroj;
+import rs.ac.bg.fon.nst.fitnes.dto.FaseteResponse;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KatalogFacetIndexTest {
+
+    @Mock
+    private VezbaRepository vezbaRepository;
+
+    private KatalogFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(vezbaRepository.findAllFasete()).thenReturn(List.of(
+                new VezbaFaseta(1L, 1L, 1L, 7),
+                new VezbaFaseta(2L, 1L, 1L, null),
+                new VezbaFaseta(3L, 1L, 2L, 7),
+                new VezbaFaseta(4L, 2L, 1L, 8)));
+        index = new KatalogFacetIndex(vezbaRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void testFasete_CountsWholeCatalog() {
+        FaseteResponse fasete = index.fasete(null);
+
+        assertEquals(4, fasete.getUkupno());
+        assertEquals(Map.of(1L, 3L, 2L, 1L), fasete.getPoGrupi());
+        assertEquals(Map.of(1L, 3L, 2L, 1L), fasete.getPoKategoriji());
+        assertEquals(List.of(new FasetaBroj(1L, 1L, 2), new FasetaBroj(1L, 2L, 1), new FasetaBroj(2L, 1L, 1)),
+                fasete.getParovi());
+    }
+
+    @Test
+    void testFasete_FiltersByTrainer() {
+        FaseteResponse fasete = index.fasete(7);
+
+        assertEquals(2, fasete.getUkupno());
+        assertEquals(List.of(new FasetaBroj(1L, 1L, 1), new FasetaBroj(1L, 2L, 1)), fasete.getParovi());
+        assertEquals(0, index.fasete(99).getUkupno());
+        assertTrue(index.fasete(99).getParovi().isEmpty());
+    }
+
+    @Test
+    void testEvents_MoveExerciseBetweenCounters() {
+        // vezba 4 prelazi u grupu 1 i kategoriju 2, a dodaje se nova vezba 5
+        index.onVezbaSacuvana(new VezbaSacuvanaEvent(dokument(4L, 1L, 2L, 8)));
+        index.onVezbaSacuvana(new VezbaSacuvanaEvent(dokument(5L, 3L, 1L, null)));
+
+        FaseteResponse fasete = index.fasete(null);
+        assertEquals(5, fasete.getUkupno());
+        assertEquals(Map.of(1L, 4L, 3L, 1L), fasete.getPoGrupi());
+        assertEquals(List.of(new FasetaBroj(1L, 1L, 2), new FasetaBroj(1L, 2L, 2), new FasetaBroj(3L, 1L, 1)),
+                fasete.getParovi());
+        assertEquals(List.of(new FasetaBroj(1L, 2L, 1)), index.fasete(8).getParovi());
+        verify(vezbaRepository, times(1)).findAllFasete();
+    }
+
+    @Test
+    void testEvents_UnchangedExerciseKeepsCounts() {
+        index.onVezbaSacuvana(new VezbaSacuvanaEvent(dokument(1L, 1L, 1L, 7)));
+
+        assertEquals(new FasetaBroj(1L, 1L, 2), index.fasete(null).getParovi().get(0));
+        assertEquals(2, index.fasete(7).getUkupno());
+    }
+
+    private static VezbaDokument dokument(Long id, Long grupaMisicaId, Long kategorijaId, Integer trenerId) {
+        return new VezbaDokument(id, "Vezba " + id, null, null, null, null, 3, 10, kategorijaId, "Snaga",
+                grupaMisicaId, trenerId);
+    }
+
+    @Test
+    void testRebuild_PicksUpChangesFromOtherInstances() {
+        when(vezbaRepository.findAllFasete()).thenReturn(List.of(new VezbaFaseta(9L, 3L, 3L, 8)));
+
+        index.rebuild();
+
+        FaseteResponse fasete = index.fasete(null);
+        assertEquals(1, fasete.getUkupno());
+        assertEquals(List.of(new FasetaBroj(3L, 3L, 1)), fasete.getParovi());
+        assertEquals(0, index.fasete(7).getUkupno());
+    }
+
+    @Test
+    void testIndex_DuringRebuildIsAppliedAfterSwap() throws Exception {
+        CountDownLatch citanje = new CountDownLatch(1);
+        CountDownLatch nastavi = new CountDownLatch(1);
+        when(vezbaRepository.findAllFasete()).thenAnswer(invocation -> {
+            citanje.countDown();
+            nastavi.await(5, TimeUnit.SECONDS);
+            return List.of(new VezbaFaseta(1L, 1L, 1L, 7));
+        });
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        assertTrue(citanje.await(5, TimeUnit.SECONDS));
+        // vezba sacuvana posle citanja iz baze; ne sme da je pregazi zamena brojaca
+        CompletableFuture<Void> dogadjaj = CompletableFuture.runAsync(() -> index.index(new VezbaFaseta(5L, 2L, 2L, 7)));
+        nastavi.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        dogadjaj.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, index.fasete(null).getUkupno());
+        assertEquals(2, index.fasete(7).getUkupno());
+    }
+}
@@ -0,0 +1,135 @@
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.dto.GrupaMisicaResponse;
+import rs.ac.bg.fon.nst.fitnes.dto.KategorijaVezbeResponse;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.KategorijaVezbeRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+import rs.ac.bg.fon.nst.fitnes.service.GrupaMisicaService;
+import rs.ac.bg.fon.nst.fitnes.service.KategorijaVezbeService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KatalogSnapshotTest {
+
+    @Mock
+    private KategorijaVezbeService kategorijaVezbeService;
+    @Mock
+    private GrupaMisicaService grupaMisicaService;
+    @Mock
+    private KategorijaVezbeRepository kategorijaVezbeRepository;
+    @Mock
+    private GrupaMisicaRepository grupaMisicaRepository;
+    @Mock
+    private VezbaRepository vezbaRepository;
+
+    private KatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = noviSnapshot();
+    }
+
+    @Test
+    void testKategorije_SerializedOnceWithGzipAndEtag() throws IOException {
+        when(kategorijaVezbeService.getAllKategorijeVezbe()).thenReturn(List.of(new KategorijaVezbeResponse(1L, "Snaga")));
+
+        KatalogSnapshot.Snimak snimak = snapshot.kategorije();
+
+        assertSame(snimak, snapshot.kategorije());
+        assertEquals("[{\"id\":1,\"naziv\":\"Snaga\"}]", new String(snimak.json()));
+        assertArrayEquals(snimak.json(), new GZIPInputStream(new ByteArrayInputStream(snimak.gzip())).readAllBytes());
+        assertTrue(snimak.etag().matches("\"[0-9a-f]{32}\""));
+        assertEquals(snimak.etag().replace("\"", "").concat("-gzip"), snimak.gzipEtag().replace("\"", ""));
+        verify(kategorijaVezbeService, times(1)).getAllKategorijeVezbe();
+    }
+
+    @Test
+    void testOnVezbaSacuvana_BumpsVersionOnlyWhenBytesChange() {
+        GrupaMisicaResponse grudi = new GrupaMisicaResponse();
+        grudi.setId(1L);
+        grudi.setNaziv("Grudi");
+        GrupaMisicaResponse ledja = new GrupaMisicaResponse();
+        ledja.setId(2L);
+        ledja.setNaziv("Ledja");
+        LocalDateTime pre = LocalDateTime.of(2026, 1, 1, 10, 0);
+        when(grupaMisicaRepository.findMaxUpdatedAt()).thenReturn(pre, pre, pre.plusMinutes(1));
+        when(grupaMisicaService.getAllGrupeMisica())
+                .thenReturn(List.of(grudi), List.of(grudi), List.of(grudi, ledja));
+
+        KatalogSnapshot.Snimak prvi = snapshot.grupe();
+        snapshot.onVezbaSacuvana(null);
+        assertSame(prvi, snapshot.grupe());
+
+        snapshot.onGrupaMisicaSacuvana(new GrupaMisicaSacuvanaEvent(2L, "Ledja"));
+        KatalogSnapshot.Snimak drugi = snapshot.grupe();
+        assertTrue(drugi.verzija() > prvi.verzija());
+        assertNotEquals(prvi.etag(), drugi.etag());
+        verify(grupaMisicaService, times(3)).getAllGrupeMisica();
+    }
+
+
+    @Test
+    void testOnVezbaSacuvana_RebuildsOnceOnNextRead() {
+        when(grupaMisicaService.getAllGrupeMisica()).thenReturn(List.of());
+        snapshot.grupe();
+
+        snapshot.onVezbaSacuvana(null);
+        snapshot.onVezbaSacuvana(null);
+        snapshot.onGrupaMisicaSacuvana(new GrupaMisicaSacuvanaEvent(2L, "Ledja"));
+        // izmena ne cita bazu; to radi tek sledece citanje, jednom za sve izmene
+        verify(grupaMisicaService, times(1)).getAllGrupeMisica();
+
+        snapshot.grupe();
+        snapshot.grupe();
+        verify(grupaMisicaService, times(2)).getAllGrupeMisica();
+    }
+
+    @Test
+    void testVerzija_DerivedFromDatabaseSoInstancesAgree() {
+        LocalDateTime izmena = LocalDateTime.of(2026, 3, 5, 12, 30);
+        when(kategorijaVezbeRepository.findMaxUpdatedAt()).thenReturn(izmena.minusDays(1));
+        when(vezbaRepository.findMaxUpdatedAt()).thenReturn(izmena);
+        when(grupaMisicaService.getAllGrupeMisica()).thenReturn(List.of());
+
+        long prva = snapshot.grupe().verzija();
+        long druga = noviSnapshot().grupe().verzija();
+
+        assertEquals(izmena.toInstant(ZoneOffset.UTC).toEpochMilli(), prva);
+        assertEquals(prva, druga);
+    }
+
+    @Test
+    void testRebuild_SameBytesNewerChange_KeepsEtagAndRaisesVersion() {
+        LocalDateTime pre = LocalDateTime.of(2026, 1, 1, 10, 0);
+        when(kategorijaVezbeRepository.findMaxUpdatedAt()).thenReturn(pre, pre.plusSeconds(5));
+        when(kategorijaVezbeService.getAllKategorijeVezbe()).thenReturn(List.of(new KategorijaVezbeResponse(1L, "Snaga")));
+        KatalogSnapshot.Snimak prvi = snapshot.kategorije();
+
+        snapshot.rebuild();
+        KatalogSnapshot.Snimak drugi = snapshot.kategorije();
+
+        assertEquals(prvi.etag(), drugi.etag());
+        assertEquals(prvi.verzija() + 5000, drugi.verzija());
+    }
+
+    private KatalogSnapshot noviSnapshot() {
+        return new KatalogSnapshot(kategorijaVezbeService, grupaMisicaService, kategorijaVezbeRepository,
+                grupaMisicaRepository, vezbaRepository, new ObjectMapper());
+    }
+}
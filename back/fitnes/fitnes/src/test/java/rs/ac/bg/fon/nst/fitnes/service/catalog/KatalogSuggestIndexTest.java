@@ -0,0 +1,97 @@
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.dto.PredlogResponse;
+import rs.ac.bg.fon.nst.fitnes.repo.GrupaMisicaRepository;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KatalogSuggestIndexTest {
+
+    @Mock
+    private VezbaRepository vezbaRepository;
+    @Mock
+    private GrupaMisicaRepository grupaMisicaRepository;
+
+    private KatalogSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(vezbaRepository.findNaziviSaPopularnoscu()).thenReturn(List.of(
+                new NazivPopularnost(1L, "Bench press", 40L),
+                new NazivPopularnost(2L, "Benč na kosoj klupi", 5L),
+                new NazivPopularnost(3L, "Čučanj", 25L),
+                new NazivPopularnost(4L, "Leg press", 12L)));
+        when(grupaMisicaRepository.findNaziviSaPopularnoscu()).thenReturn(List.of(
+                new NazivPopularnost(10L, "Leđa", 30L),
+                new NazivPopularnost(11L, "Noge", 37L)));
+        index = new KatalogSuggestIndex(vezbaRepository, grupaMisicaRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void testSuggest_RankedByPopularityAcrossTypes() {
+        assertEquals(List.of(
+                new PredlogResponse(KatalogSuggestIndex.TIP_VEZBA, 1L, "Bench press"),
+                new PredlogResponse(KatalogSuggestIndex.TIP_VEZBA, 2L, "Benč na kosoj klupi")),
+                index.suggest("ben", 8));
+        assertEquals(List.of(10L, 4L), ids(index.suggest("le", 8)));
+    }
+
+    @Test
+    void testSuggest_FoldsDiacriticsAndMatchesInnerWords() {
+        assertEquals(List.of(3L), ids(index.suggest("cuc", 8)));
+        assertEquals(List.of(10L), ids(index.suggest("ledj", 8)));
+        // "press" je druga rec u oba naziva
+        assertEquals(List.of(1L, 4L), ids(index.suggest("press", 8)));
+        assertEquals(List.of(1L), ids(index.suggest("bench  PR", 8)));
+    }
+
+    @Test
+    void testSuggest_RespectsLimitAndUnknownPrefix() {
+        assertEquals(1, index.suggest("b", 1).size());
+        assertTrue(index.suggest("xyz", 8).isEmpty());
+        assertTrue(index.suggest(" ", 8).isEmpty());
+    }
+
+    @Test
+    void testSuggest_KeepsTopKPerNode() {
+        List<NazivPopularnost> mnogo = new ArrayList<>();
+        for (long i = 0; i < 30; i++) {
+            mnogo.add(new NazivPopularnost(100 + i, "Vezba " + i, i));
+        }
+        when(vezbaRepository.findNaziviSaPopularnoscu()).thenReturn(mnogo);
+        index.rebuild();
+
+        List<PredlogResponse> predlozi = index.suggest("vez", 50);
+        assertEquals(KatalogSuggestIndex.MAX_PREDLOGA, predlozi.size());
+        assertEquals(129L, predlozi.get(0).getId());
+        assertEquals(120L, predlozi.get(predlozi.size() - 1).getId());
+    }
+
+    @Test
+    void testEvents_SwapTrieWithoutDatabase() {
+        index.onGrupaMisicaSacuvana(new GrupaMisicaSacuvanaEvent(12L, "Ramena"));
+        index.onVezbaSacuvana(new VezbaSacuvanaEvent(new VezbaDokument(1L, "Potisak sa ravne klupe", null, null,
+                null, null, 4, 10, 1L, "Snaga", 1L, null)));
+
+        assertEquals(List.of(12L), ids(index.suggest("ram", 8)));
+        assertEquals(List.of(4L), ids(index.suggest("pres", 8)));
+        assertEquals(List.of(1L), ids(index.suggest("potisak", 8)));
+        verify(vezbaRepository, times(1)).findNaziviSaPopularnoscu();
+    }
+
+    private static List<Long> ids(List<PredlogResponse> predlozi) {
+        return predlozi.stream().map(PredlogResponse::getId).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package rs.ac.bg.fon.nst.fitnes.service.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rs.ac.bg.fon.nst.fitnes.repo.VezbaRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VezbaSearchIndexTest {
+
+    @Mock
+    private VezbaRepository vezbaRepository;
+
+    private VezbaSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(vezbaRepository.findAllDokumenti()).thenReturn(List.of(
+                dokument(1L, "Čučanj sa šipkom", "Osnovna vežba za noge.", "kvadriceps, gluteus", "Leđa prava."),
+                dokument(2L, "Bench press", "Potisak sa klupe.", "grudi, triceps", "Laktovi uz telo."),
+                dokument(3L, "Iskorak", "Vežba za noge; radi se kao čučanj na jednoj nozi.", "kvadriceps", null),
+                dokument(4L, "Đačko istezanje", "Lagano istezanje.", "leđa", null)));
+        index = new VezbaSearchIndex(vezbaRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void testSearch_FoldsSerbianDiacritics() {
+        assertEquals(List.of(1L, 3L), ids(index.search("cucanj", 10)));
+        assertEquals(List.of(4L), ids(index.search("djacko", 10)));
+        assertEquals(List.of(4L), ids(index.search("ĐAČKO", 10)));
+    }
+
+    @Test
+    void testSearch_MatchesPrefixes() {
+        assertEquals(List.of(2L), ids(index.search("ben", 10)));
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(index.search("kvadri", 10))));
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchAboveDescriptionMatch() {
+        // "čučanj" je naziv vezbe 1, a samo se pominje u opisu vezbe 3
+        List<VezbaDokument> rezultati = index.search("čučanj", 10);
+
+        assertEquals(1L, rezultati.get(0).id());
+        assertEquals(3L, rezultati.get(1).id());
+    }
+
+    @Test
+    void testSearch_RequiresEveryTerm() {
+        assertEquals(List.of(3L), ids(index.search("noge jednoj", 10)));
+        assertTrue(index.search("noge triceps", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_LimitKeepsBestResults() {
+        assertEquals(List.of(1L), ids(index.search("cucanj", 1)));
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void testIndex_UpdateReplacesOldTerms() {
+        index.index(dokument(2L, "Potisak sa kosine", "Kosa klupa.", "gornji deo grudi", null));
+
+        assertTrue(index.search("bench", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("kosine", 10)));
+
+        index.index(dokument(5L, "Bench press uski hvat", null, "triceps", null));
+        assertEquals(List.of(5L), ids(index.search("bench", 10)));
+        verify(vezbaRepository, times(1)).findAllDokumenti();
+    }
+
+    private static List<Long> ids(List<VezbaDokument> dokumenti) {
+        return dokumenti.stream().map(VezbaDokument::id).toList();
+    }
+
+    private static VezbaDokument dokument(Long id, String naziv, String opis, String misici, String savet) {
+        return new VezbaDokument(id, naziv, opis, misici, savet, null, 3, 10, 1L, "Snaga", 1L, null);
+    }
+}
@@ -0,0 +1,137 @@
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UravnotezeniPlanGeneratorTest {
+
+    private final UravnotezeniPlanGenerator generator = new UravnotezeniPlanGenerator();
+
+    @Test
+    void testGenerisi_EveryDayCoversEveryGroupWithoutRepeats() {
+        // tri grupe po deset vezbi, 12 nedelja
+        List<VezbaKandidat> kandidati = kandidati(3, 10, 1);
+        Map<Long, VezbaKandidat> poId = poId(kandidati);
+
+        List<List<GenerisanaStavka>> dani = generisi(kandidati, CiljTreninga.HIPERTROFIJA, 84, 5L);
+
+        assertEquals(84, dani.size());
+        for (int dan = 0; dan < dani.size(); dan++) {
+            List<Long> ids = ids(dani.get(dan));
+            assertEquals(7, ids.size());
+            assertEquals(7, Set.copyOf(ids).size());
+            assertEquals(Set.of(1L, 2L, 3L), ids.stream().map(id -> poId.get(id).grupaMisicaId()).collect(Collectors.toSet()));
+            // prozor od dva dana: ni juce ni prekjuce
+            for (int pre = 1; pre <= UravnotezeniPlanGenerator.PROZOR_BEZ_PONAVLJANJA && pre <= dan; pre++) {
+                Set<Long> ranije = new HashSet<>(ids(dani.get(dan - pre)));
+                ranije.retainAll(ids);
+                assertTrue(ranije.isEmpty(), "dan " + dan + " ponavlja vezbe od pre " + pre + " dana");
+            }
+        }
+    }
+
+    @Test
+    void testGenerisi_MixesCategoriesWithinGroup() {
+        List<VezbaKandidat> kandidati = kandidati(1, 30, 3);
+        Map<Long, VezbaKandidat> poId = poId(kandidati);
+
+        for (List<GenerisanaStavka> dan : generisi(kandidati, CiljTreninga.OPSTI, 10, 9L)) {
+            Map<Long, Long> poKategoriji = ids(dan).stream()
+                    .collect(Collectors.groupingBy(id -> poId.get(id).kategorijaId(), Collectors.counting()));
+            // 7 vezbi iz 3 kategorije: 3 + 2 + 2
+            assertEquals(3, poKategoriji.size());
+            assertTrue(poKategoriji.values().stream().allMatch(broj -> broj >= 2 && broj <= 3));
+        }
+    }
+
+    @Test
+    void testGenerisi_SmallPoolRelaxesWindowButNotTheDay() {
+        // grupa sa samo tri vezbe ne moze da postuje prozor, ali ne ponavlja vezbu u istom danu
+        List<List<GenerisanaStavka>> dani = generisi(kandidati(1, 3, 1), CiljTreninga.HIPERTROFIJA, 5, 1L);
+
+        for (List<GenerisanaStavka> dan : dani) {
+            assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(ids(dan)));
+        }
+    }
+
+    @Test
+    void testGenerisi_RotatesGroupsWhenDayHasFewerSlots() {
+        // osam grupa, a SNAGA trazi pet vezbi dnevno
+        List<VezbaKandidat> kandidati = kandidati(8, 4, 1);
+        Map<Long, VezbaKandidat> poId = poId(kandidati);
+
+        List<List<GenerisanaStavka>> dani = generisi(kandidati, CiljTreninga.SNAGA, 2, 3L);
+
+        Set<Long> grupe = new HashSet<>();
+        for (List<GenerisanaStavka> dan : dani) {
+            assertEquals(5, dan.size());
+            ids(dan).forEach(id -> grupe.add(poId.get(id).grupaMisicaId()));
+        }
+        assertEquals(8, grupe.size());
+    }
+
+    @Test
+    void testGenerisi_SameSeedSamePlan() {
+        List<VezbaKandidat> kandidati = kandidati(2, 15, 2);
+
+        assertEquals(generisi(kandidati, CiljTreninga.OPSTI, 30, 77L), generisi(kandidati, CiljTreninga.OPSTI, 30, 77L));
+        assertNotEquals(generisi(kandidati, CiljTreninga.OPSTI, 30, 77L), generisi(kandidati, CiljTreninga.OPSTI, 30, 78L));
+    }
+
+    @Test
+    void testCiljTreninga_AdjustsRecommendedSetsAndReps() {
+        List<GenerisanaStavka> snaga = generisi(kandidati(1, 10, 1), CiljTreninga.SNAGA, 1, 1L).get(0);
+        assertTrue(snaga.stream().allMatch(stavka -> stavka.brojSerija() == 4 && stavka.brojPonavljanja() == 5));
+
+        List<GenerisanaStavka> izdrzljivost = generisi(kandidati(1, 10, 1), CiljTreninga.IZDRZLJIVOST, 1, 1L).get(0);
+        assertEquals(8, izdrzljivost.size());
+        assertTrue(izdrzljivost.stream().allMatch(stavka -> stavka.brojSerija() == 2 && stavka.brojPonavljanja() == 15));
+
+        assertEquals(3, CiljTreninga.OPSTI.brojSerija(null));
+        assertEquals(10, CiljTreninga.OPSTI.brojPonavljanja(null));
+    }
+
+    @Test
+    void testCiljTreninga_FromFreeText() {
+        assertEquals(CiljTreninga.HIPERTROFIJA, CiljTreninga.from("Izgradnja mišićne mase"));
+        assertEquals(CiljTreninga.SNAGA, CiljTreninga.from("Povećanje SNAGE"));
+        assertEquals(CiljTreninga.IZDRZLJIVOST, CiljTreninga.from("Gubitak masti"));
+        assertEquals(CiljTreninga.IZDRZLJIVOST, CiljTreninga.from("Izdržljivost"));
+        assertEquals(CiljTreninga.OPSTI, CiljTreninga.from(null));
+        assertEquals(CiljTreninga.OPSTI, CiljTreninga.from("Zdravlje"));
+    }
+
+    private List<List<GenerisanaStavka>> generisi(List<VezbaKandidat> kandidati, CiljTreninga cilj, int brojDana,
+                                                  long seed) {
+        return generator.generisi(new GeneratorZahtev(IndeksVezbi.of(kandidati), cilj, brojDana, seed));
+    }
+
+    // preporuceno 3 serije po 10 ponavljanja; id-evi redom, grupe i kategorije od 1
+    private static List<VezbaKandidat> kandidati(int grupa, int poGrupi, int kategorija) {
+        List<VezbaKandidat> kandidati = new ArrayList<>();
+        long id = 1;
+        for (long g = 1; g <= grupa; g++) {
+            for (int i = 0; i < poGrupi; i++) {
+                kandidati.add(new VezbaKandidat(id++, 3, 10, g, (long) (i % kategorija + 1)));
+            }
+        }
+        return kandidati;
+    }
+
+    private static Map<Long, VezbaKandidat> poId(List<VezbaKandidat> kandidati) {
+        return kandidati.stream().collect(Collectors.toMap(VezbaKandidat::id, Function.identity()));
+    }
+
+    private static List<Long> ids(List<GenerisanaStavka> dan) {
+        return dan.stream().map(GenerisanaStavka::vezbaId).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package rs.ac.bg.fon.nst.fitnes.service.plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VezbaSamplerTest {
+
+    @Test
+    void testIzaberi_DistinctPositionsWithinPool() {
+        VezbaSampler sampler = new VezbaSampler(10, 42L);
+
+        for (int dan = 0; dan < 50; dan++) {
+            int[] izabrane = sampler.izaberi(7);
+            assertEquals(7, izabrane.length);
+            assertEquals(7, Arrays.stream(izabrane).distinct().count());
+            assertTrue(Arrays.stream(izabrane).allMatch(p -> p >= 0 && p < 10));
+        }
+    }
+
+    @Test
+    void testIzaberi_SmallPoolReturnsEveryCandidate() {
+        int[] izabrane = new VezbaSampler(3, 1L).izaberi(7);
+
+        assertArrayEquals(new int[]{0, 1, 2}, Arrays.stream(izabrane).sorted().toArray());
+        assertEquals(0, new VezbaSampler(0, 1L).izaberi(7).length);
+    }
+
+    @Test
+    void testIzaberi_SameSeedSameSequence() {
+        VezbaSampler prvi = new VezbaSampler(100, 7L);
+        VezbaSampler drugi = new VezbaSampler(100, 7L);
+        VezbaSampler treci = new VezbaSampler(100, 8L);
+
+        boolean razlicit = false;
+        for (int dan = 0; dan < 10; dan++) {
+            int[] a = prvi.izaberi(7);
+            assertArrayEquals(a, drugi.izaberi(7));
+            razlicit |= !Arrays.equals(a, treci.izaberi(7));
+        }
+        assertTrue(razlicit);
+    }
+
+    @Test
+    void testIzaberi_EveryCandidateEquallyLikely() {
+        VezbaSampler sampler = new VezbaSampler(10, 3L);
+        int[] brojevi = new int[10];
+        int izvlacenja = 20_000;
+
+        for (int i = 0; i < izvlacenja; i++) {
+            for (int pozicija : sampler.izaberi(3)) {
+                brojevi[pozicija]++;
+            }
+        }
+        // ocekivano 6000 po kandidatu; granica je daleko iznad slucajnog odstupanja
+        IntStream.of(brojevi).forEach(broj -> assertEquals(6000, broj, 400));
+    }
+}
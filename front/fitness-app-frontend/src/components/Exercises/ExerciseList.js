@@ -1,29 +1,59 @@
 import React, { useEffect, useState } from 'react';
-import { Container, Row, Col, Card, Button, Alert, Spinner } from 'react-bootstrap';
+import { Container, Row, Col, Card, Button, Alert, Spinner, Form } from 'react-bootstrap';
 import { Link } from 'react-router-dom';
 import api from '../../services/api';
 
 const BASE_MEDIA_URL = 'http://localhost:8080/api';
+const PAGE_SIZE = 24;
+const SEARCH_LIMIT = 48;
 
 const ExerciseList = () => {
   const [exercises, setExercises] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
+  const [pretraga, setPretraga] = useState('');
+  const [rezultati, setRezultati] = useState(null);
 
+  // Lista je stranicena kursorom; sledeca stranica se nadovezuje na prethodne
+  const fetchExercises = async (cursor) => {
+    try {
+      const response = await api.get('/vezbe', { params: { size: PAGE_SIZE, cursor } });
+      setExercises(prev => (cursor ? [...prev, ...response.data.content] : response.data.content));
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError(err.response?.data?.message || 'Greška pri dohvaćanju vežbi.');
+      console.error('Error fetching exercises:', err);
+    }
+  };
+
+  useEffect(() => {
+    fetchExercises(null).finally(() => setLoading(false));
+  }, []);
+
+  // Pretragu radi server iz indeksa; prazno polje vraca stranicenu listu
   useEffect(() => {
-    const fetchExercises = async () => {
+    if (!pretraga.trim()) {
+      setRezultati(null);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
       try {
-        const response = await api.get('/vezbe');
-        setExercises(response.data);
+        const response = await api.get('/vezbe/search', { params: { q: pretraga, limit: SEARCH_LIMIT } });
+        setRezultati(response.data);
       } catch (err) {
-        setError(err.response?.data?.message || 'Greška pri dohvaćanju vežbi.');
-        console.error('Error fetching exercises:', err);
-      } finally {
-        setLoading(false);
+        console.error('Error searching exercises:', err);
       }
-    };
-    fetchExercises();
-  }, []);
+    }, 200);
+    return () => clearTimeout(timer);
+  }, [pretraga]);
+
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    await fetchExercises(nextCursor);
+    setLoadingMore(false);
+  };
 
   if (loading) {
     return (
@@ -46,11 +76,18 @@ const ExerciseList = () => {
   return (
     <Container className="my-5">
       <h2 className="text-center mb-4 text-primary">Sve Vežbe</h2>
-      {exercises.length === 0 ? (
+      <Form.Control
+        type="search"
+        className="mb-4"
+        placeholder="Pretraga po nazivu, opisu, mišićima..."
+        value={pretraga}
+        onChange={(e) => setPretraga(e.target.value)}
+      />
+      {(rezultati ?? exercises).length === 0 ? (
         <Alert variant="info" className="text-center">Nema dostupnih vežbi.</Alert>
       ) : (
         <Row xs={1} md={2} lg={3} className="g-4">
-          {exercises.map(exercise => (
+          {(rezultati ?? exercises).map(exercise => (
             <Col key={exercise.id}>
               <Card className="h-100 shadow-sm border-0">
                 {exercise.slika && (
@@ -64,7 +101,7 @@ const ExerciseList = () => {
                 <Card.Body className="d-flex flex-column">
                   <Card.Title className="text-secondary">{exercise.naziv}</Card.Title>
                   <Card.Text className="text-muted flex-grow-1">
-                    {exercise.opis.length > 150 ? exercise.opis.substring(0, 150) + '...' : exercise.opis}
+                    {exercise.kategorija?.naziv} · {exercise.preporuceniBrojSerija} x {exercise.preporuceniBrojPonavljanja}
                   </Card.Text>
                   <Button as={Link} to={`/exercises/${exercise.id}`} variant="primary" className="mt-auto">
                     Detalji
@@ -75,6 +112,13 @@ const ExerciseList = () => {
           ))}
         </Row>
       )}
+      {!rezultati && nextCursor && (
+        <div className="text-center mt-4">
+          <Button variant="outline-primary" onClick={handleLoadMore} disabled={loadingMore}>
+            {loadingMore ? 'Učitavanje...' : 'Učitaj još'}
+          </Button>
+        </div>
+      )}
     </Container>
   );
 };
@@ -114,7 +114,7 @@ const MuscleGroupDetail = () => {
                 <Card.Body className="d-flex flex-column">
                   <Card.Title className="text-secondary">{exercise.naziv}</Card.Title>
                   <Card.Text className="text-muted flex-grow-1">
-                    {exercise.opis.length > 100 ? exercise.opis.substring(0, 100) + '...' : exercise.opis}
+                    {exercise.kategorija?.naziv} · {exercise.preporuceniBrojSerija} x {exercise.preporuceniBrojPonavljanja}
                   </Card.Text>
                   <Button as={Link} to={`/exercises/${exercise.id}`} variant="outline-primary" className="mt-auto">
                     Detalji Vežbe
@@ -7,25 +7,31 @@ const AddTrainingPlan = () => {
   const [nazivPlana, setNazivPlana] = useState('');
   const [selectedVezbe, setSelectedVezbe] = useState([]); 
   const [availableVezbe, setAvailableVezbe] = useState([]);
+  const [pretraga, setPretraga] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
   const [error, setError] = useState(null);
   const [success, setSuccess] = useState('');
   const [loading, setLoading] = useState(true);
   const navigate = useNavigate();
 
+  // Vezbe se ucitavaju po stranicama, filtrirane po pocetku naziva
+  const fetchAvailableExercises = async (naziv, cursor) => {
+    try {
+      const response = await api.get('/vezbe', { params: { naziv: naziv || undefined, cursor, size: 50 } });
+      setAvailableVezbe(prev => (cursor ? [...prev, ...response.data.content] : response.data.content));
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Greška pri učitavanju dostupnih vežbi.');
+      console.error('Error fetching available exercises:', err);
+    } finally {
+      setLoading(false);
+    }
+  };
+
   useEffect(() => {
-    const fetchAvailableExercises = async () => {
-      try {
-        const response = await api.get('/vezbe'); 
-        setAvailableVezbe(response.data);
-      } catch (err) {
-        setError('Greška pri učitavanju dostupnih vežbi.');
-        console.error('Error fetching available exercises:', err);
-      } finally {
-        setLoading(false);
-      }
-    };
-    fetchAvailableExercises();
-  }, []);
+    const timer = setTimeout(() => fetchAvailableExercises(pretraga, null), 300);
+    return () => clearTimeout(timer);
+  }, [pretraga]);
 
   const handleAddVezba = (vezbaId) => {
     const vezba = availableVezbe.find(v => v.id === parseInt(vezbaId));
@@ -102,7 +108,18 @@ const AddTrainingPlan = () => {
 
           <h4 className="mt-4 mb-3 text-secondary">Dodaj Vežbe</h4>
           <Row className="mb-3">
-            <Col md={8}>
+            <Col md={4}>
+              <Form.Group controlId="pretragaVezbi">
+                <Form.Label>Pretraga</Form.Label>
+                <Form.Control
+                  type="text"
+                  placeholder="Početak naziva..."
+                  value={pretraga}
+                  onChange={(e) => setPretraga(e.target.value)}
+                />
+              </Form.Group>
+            </Col>
+            <Col md={6}>
               <Form.Group controlId="selectVezba">
                 <Form.Label>Izaberi Vežbu</Form.Label>
                 <Form.Control as="select" onChange={(e) => handleAddVezba(e.target.value)} value="">
@@ -115,6 +132,13 @@ const AddTrainingPlan = () => {
                 </Form.Control>
               </Form.Group>
             </Col>
+            {nextCursor && (
+              <Col md={2} className="d-flex align-items-end">
+                <Button variant="outline-secondary" className="w-100" onClick={() => fetchAvailableExercises(pretraga, nextCursor)}>
+                  Još vežbi
+                </Button>
+              </Col>
+            )}
           </Row>
 
           {selectedVezbe.length > 0 && (
@@ -21,8 +21,9 @@ export const AuthProvider = ({ children }) => {
   const login = async (email, password) => {
     try {
       const response = await axios.post('http://localhost:8080/api/auth/login', { email, password });
-      const { accessToken, role } = response.data;
+      const { accessToken, refreshToken, role } = response.data;
       sessionStorage.setItem('accessToken', accessToken);
+      sessionStorage.setItem('refreshToken', refreshToken);
       sessionStorage.setItem('userRole', role);
       setToken(accessToken);
       setUserRole(role);
@@ -58,12 +59,14 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const refreshToken = sessionStorage.getItem('refreshToken');
     sessionStorage.removeItem('accessToken');
+    sessionStorage.removeItem('refreshToken');
     sessionStorage.removeItem('userRole');
     setToken(null);
     setUserRole(null);
     setIsAuthenticated(false);
-    axios.post('http://localhost:8080/api/auth/logout', {}, {
+    axios.post('http://localhost:8080/api/auth/logout', { refreshToken }, {
       headers: { Authorization: `Bearer ${token}` }
     }).catch(err => console.error('Logout backend call failed:', err));
   };
@@ -24,15 +24,57 @@ api.interceptors.request.use(
 );
 
 
+// Vise istovremenih 401 odgovora deli jedno osvezavanje, jer se refresh token trosi pri upotrebi.
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = sessionStorage.getItem('refreshToken');
+    refreshPromise = axios
+      .post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        const { accessToken, refreshToken: newRefreshToken } = response.data;
+        sessionStorage.setItem('accessToken', accessToken);
+        sessionStorage.setItem('refreshToken', newRefreshToken);
+        return accessToken;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+const logoutLocally = () => {
+  sessionStorage.removeItem('accessToken');
+  sessionStorage.removeItem('refreshToken');
+  sessionStorage.removeItem('userRole');
+  window.location.href = '/login';
+};
+
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const originalRequest = error.config;
+
+    if (error.response && error.response.status === 401 && originalRequest && !originalRequest._retry
+        && sessionStorage.getItem('refreshToken')) {
+      originalRequest._retry = true;
+      try {
+        const accessToken = await refreshAccessToken();
+        originalRequest.headers.Authorization = `Bearer ${accessToken}`;
+        return api(originalRequest);
+      } catch (refreshError) {
+        console.error('Token refresh failed, logging out...');
+        logoutLocally();
+        return Promise.reject(refreshError);
+      }
+    }
+
     if (error.response && (error.response.status === 401 || error.response.status === 403)) {
      
       console.error('Unauthorized or Forbidden access, logging out...');
-      sessionStorage.removeItem('accessToken');
-      sessionStorage.removeItem('userRole');
-      window.location.href = '/login';
+      logoutLocally();
     }
     return Promise.reject(error);
   }